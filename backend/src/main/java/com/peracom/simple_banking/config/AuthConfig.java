@@ -0,0 +1,20 @@
+package com.peracom.simple_banking.config;
+
+import com.peracom.simple_banking.services.ITokenService;
+import java.util.Set;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuthConfig {
+
+    @Bean
+    public FilterRegistrationBean<TokenAuthenticationFilter> tokenAuthenticationFilter(ITokenService tokenService) {
+        FilterRegistrationBean<TokenAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new TokenAuthenticationFilter(
+                        tokenService, Set.of("/api/users/register", "/api/users/login")));
+        registration.addUrlPatterns("/api/accounts/*", "/api/transactions/*", "/api/users/*", "/api/reports/*");
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package com.peracom.simple_banking.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNTS = "accounts";
+    public static final String ACCOUNTS_BY_USER = "accountsByUser";
+    public static final String USERS = "users";
+}
@@ -2,7 +2,6 @@ package com.peracom.simple_banking.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,11 +19,10 @@ public class JacksonConfig {
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        // Handle Hibernate lazy loading
-        Hibernate6Module hibernate6Module = new Hibernate6Module();
-        hibernate6Module.configure(Hibernate6Module.Feature.FORCE_LAZY_LOADING, false);
-        hibernate6Module.configure(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
-        mapper.registerModule(hibernate6Module);
+        // Controllers return response DTOs, never entities, so no Hibernate-aware module is needed
+
+        // Serialize Money as a plain decimal number
+        mapper.registerModule(new MoneyModule());
 
         return mapper;
     }
@@ -0,0 +1,26 @@
+package com.peracom.simple_banking.config;
+
+import com.peracom.simple_banking.metrics.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    /**
+     * Applied to the application task executor, which runs streamed response
+     * bodies, so their statements count towards the request.
+     */
+    @Bean
+    public TaskDecorator statementCountPropagation() {
+        return StatementCounter::propagate;
+    }
+}
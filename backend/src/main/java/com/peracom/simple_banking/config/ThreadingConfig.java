@@ -0,0 +1,28 @@
+package com.peracom.simple_banking.config;
+
+import java.util.concurrent.ThreadFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+@Configuration
+public class ThreadingConfig {
+
+    /**
+     * Threads for the background flushers. Virtual when
+     * {@code spring.threads.virtual.enabled} is set and the JVM supports them,
+     * so they follow the same mode as Tomcat and the task executors.
+     */
+    @Bean
+    public ThreadFactory backgroundThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("banking-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("banking-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
@@ -0,0 +1,52 @@
+package com.peracom.simple_banking.config;
+
+import com.peracom.simple_banking.services.ITokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Requires a valid bearer token, except on the public paths, and exposes the
+ * caller as the {@link #PRINCIPAL_ATTRIBUTE} request attribute. Controllers
+ * check it against the user or account a request acts on.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE =
+            "com.peracom.simple_banking.config.TokenAuthenticationFilter.principal";
+    private static final String BEARER = "Bearer ";
+
+    private final ITokenService tokenService;
+    private final Set<String> publicPaths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod())
+                || publicPaths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "A bearer token is required.");
+            return;
+        }
+        try {
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, tokenService.verify(header.substring(BEARER.length())));
+        } catch (ResponseStatusException e) {
+            response.sendError(e.getStatusCode().value(), e.getReason());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
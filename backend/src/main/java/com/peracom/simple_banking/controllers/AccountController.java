@@ -1,16 +1,31 @@
 package com.peracom.simple_banking.controllers;
 
-import com.peracom.simple_banking.model.Account;
+import static com.peracom.simple_banking.config.TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE;
+
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.CursorPage;
+import com.peracom.simple_banking.dtos.PortfolioSummary;
 import com.peracom.simple_banking.services.IAccountService;
+import com.peracom.simple_banking.services.IAuthorizationService;
+import com.peracom.simple_banking.services.IPortfolioService;
+import com.peracom.simple_banking.services.TokenPrincipal;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -18,24 +33,63 @@ import org.springframework.web.bind.annotation.RestController;
 public class AccountController {
 
     private final IAccountService accountService;
+    private final IPortfolioService portfolioService;
+    private final IAuthorizationService authorizationService;
 
     @PostMapping
-    public ResponseEntity<Account> createAccount(@RequestBody Account account) {
-        return ResponseEntity.ok(accountService.createAccount(account));
+    public ResponseEntity<AccountResponse> createAccount(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestBody CreateAccountRequest request) {
+        if (request.getUserId() != null) {
+            authorizationService.checkUser(principal, request.getUserId());
+        }
+        return ResponseEntity.ok(AccountResponse.of(accountService.createAccount(request)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Account> getAccount(@PathVariable Long id) {
+    public ResponseEntity<AccountResponse> getAccount(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, @PathVariable Long id) {
+        authorizationService.checkAccountOwner(principal, id);
         return ResponseEntity.ok(accountService.getAccount(id));
     }
 
+    /**
+     * Lists accounts a page at a time, filtered by the {@link AccountFilter}
+     * query parameters ({@code status}, {@code userId}, {@code createdFrom},
+     * {@code createdTo}). Admins only.
+     */
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        return ResponseEntity.ok(accountService.getAllAccounts());
+    public ResponseEntity<CursorPage<AccountResponse>> getAccounts(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            AccountFilter filter,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok(accountService.getAccountPage(filter, direction, cursor, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, AccountFilter filter) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"accounts.ndjson\"")
+                .body(out -> accountService.exportAccounts(filter, out));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Account>> getAccountsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<AccountResponse>> getAccountsByUser(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, @PathVariable Long userId) {
+        authorizationService.checkUser(principal, userId);
         return ResponseEntity.ok(accountService.getAccountsByUser(userId));
     }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<PortfolioSummary> getPortfolio(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, @PathVariable Long userId) {
+        authorizationService.checkUser(principal, userId);
+        return ResponseEntity.ok(portfolioService.getPortfolio(userId));
+    }
 }
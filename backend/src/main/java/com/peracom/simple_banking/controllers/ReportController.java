@@ -0,0 +1,66 @@
+package com.peracom.simple_banking.controllers;
+
+import static com.peracom.simple_banking.config.TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE;
+
+import com.peracom.simple_banking.dtos.AccountActivityReport;
+import com.peracom.simple_banking.dtos.BackfillResult;
+import com.peracom.simple_banking.dtos.DailyTotals;
+import com.peracom.simple_banking.dtos.ReconciliationReport;
+import com.peracom.simple_banking.services.IAuthorizationService;
+import com.peracom.simple_banking.services.IDailyRollupService;
+import com.peracom.simple_banking.services.IReconciliationService;
+import com.peracom.simple_banking.services.TokenPrincipal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final IDailyRollupService dailyRollupService;
+    private final IReconciliationService reconciliationService;
+    private final IAuthorizationService authorizationService;
+
+    @GetMapping("/accounts/{accountId}/daily")
+    public ResponseEntity<AccountActivityReport> getAccountReport(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        authorizationService.checkAccountOwner(principal, accountId);
+        return ResponseEntity.ok(dailyRollupService.getAccountReport(accountId, from, to));
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyTotals>> getDailyTotals(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok(dailyRollupService.getDailyTotals(from, to));
+    }
+
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<BackfillResult> backfill(@RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok(dailyRollupService.backfill());
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ReconciliationReport> reconcile(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+}
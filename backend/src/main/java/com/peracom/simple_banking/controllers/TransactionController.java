@@ -1,44 +1,194 @@
 package com.peracom.simple_banking.controllers;
 
+import static com.peracom.simple_banking.config.TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE;
+
+import com.peracom.simple_banking.dtos.BatchItemRequest;
+import com.peracom.simple_banking.dtos.BatchMode;
+import com.peracom.simple_banking.dtos.BatchTransactionRequest;
+import com.peracom.simple_banking.dtos.BatchTransactionResponse;
 import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.MovementStatus;
+import com.peracom.simple_banking.dtos.StatementFormat;
+import com.peracom.simple_banking.dtos.TransactionPage;
+import com.peracom.simple_banking.dtos.TransactionResponse;
 import com.peracom.simple_banking.dtos.TransferRequest;
 import com.peracom.simple_banking.dtos.WithdrawRequest;
-import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.services.AcceptedMovement;
+import com.peracom.simple_banking.services.IAsyncTransactionService;
+import com.peracom.simple_banking.services.IAuthorizationService;
+import com.peracom.simple_banking.services.IIdempotencyService;
+import com.peracom.simple_banking.services.IStatementService;
 import com.peracom.simple_banking.services.ITransactionService;
-import java.util.List;
+import com.peracom.simple_banking.services.TokenPrincipal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ITransactionService transactionService;
+    private final IIdempotencyService idempotencyService;
+    private final IStatementService statementService;
+    private final IAsyncTransactionService asyncTransactionService;
+    private final IAuthorizationService authorizationService;
 
     @PostMapping("/deposit")
-    public ResponseEntity<Transaction> deposit(@RequestBody DepositRequest request) {
-        return ResponseEntity.ok(transactionService.deposit(request));
+    public ResponseEntity<TransactionResponse> deposit(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody DepositRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getAccountId());
+        return ResponseEntity.ok(idempotencyService.execute(
+                idempotencyKey, "deposit", request, () -> transactionService.deposit(request)));
     }
 
     @PostMapping("/withdraw")
-    public ResponseEntity<Transaction> withdraw(@RequestBody WithdrawRequest request) {
-        return ResponseEntity.ok(transactionService.withdraw(request));
+    public ResponseEntity<TransactionResponse> withdraw(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody WithdrawRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getAccountId());
+        return ResponseEntity.ok(idempotencyService.execute(
+                idempotencyKey, "withdraw", request, () -> transactionService.withdraw(request)));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<Transaction> transfer(@RequestBody TransferRequest request) {
-        return ResponseEntity.ok(transactionService.transfer(request));
+    public ResponseEntity<TransactionResponse> transfer(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody TransferRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getFromAccountId());
+        return ResponseEntity.ok(idempotencyService.execute(
+                idempotencyKey, "transfer", request, () -> transactionService.transfer(request)));
+    }
+
+    @PostMapping("/async/deposit")
+    public CompletableFuture<ResponseEntity<?>> depositAsync(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean wait,
+            @RequestBody DepositRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getAccountId());
+        return accepted(asyncTransactionService.deposit(idempotencyKey, request), wait);
+    }
+
+    @PostMapping("/async/withdraw")
+    public CompletableFuture<ResponseEntity<?>> withdrawAsync(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean wait,
+            @RequestBody WithdrawRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getAccountId());
+        return accepted(asyncTransactionService.withdraw(idempotencyKey, request), wait);
+    }
+
+    @PostMapping("/async/transfer")
+    public CompletableFuture<ResponseEntity<?>> transferAsync(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean wait,
+            @RequestBody TransferRequest request) {
+        authorizationService.checkAccountOwner(principal, request.getFromAccountId());
+        return accepted(asyncTransactionService.transfer(idempotencyKey, request), wait);
+    }
+
+    @GetMapping("/async/{id}")
+    public ResponseEntity<MovementStatus> getMovementStatus(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, @PathVariable String id) {
+        MovementStatus status = asyncTransactionService.getStatus(id);
+        authorizationService.checkAccountOwner(principal, status.getAccountId());
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransactionResponse> batch(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestBody BatchTransactionRequest request) {
+        checkDebitedAccounts(principal, request);
+        BatchTransactionResponse response = transactionService.executeBatch(request);
+        HttpStatus status = response.getMode() == BatchMode.ALL_OR_NOTHING && response.getRejected() > 0
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping("/account/{accountId}")
-    public ResponseEntity<List<Transaction>> getByAccount(@PathVariable Long accountId) {
-        return ResponseEntity.ok(transactionService.getTransactionsForAccount(accountId));
+    public ResponseEntity<TransactionPage> getByAccount(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) TransactionType type) {
+        authorizationService.checkAccountOwner(principal, accountId);
+        return ResponseEntity.ok(transactionService.getTransactionPage(accountId, cursor, limit, from, to, type));
+    }
+
+    @GetMapping("/account/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @PathVariable Long accountId,
+            @RequestParam(defaultValue = "CSV") StatementFormat format) {
+        // Fail with 403 or 404 before the response is committed
+        authorizationService.checkAccountOwner(principal, accountId);
+
+        String filename = "statement-" + accountId + "." + format.name().toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(out -> statementService.exportStatement(accountId, format, out));
+    }
+
+    /**
+     * Checks the caller owns every account the batch debits, or deposits into.
+     * Items without an account are left for the batch to reject.
+     */
+    private void checkDebitedAccounts(TokenPrincipal principal, BatchTransactionRequest request) {
+        if (request == null || request.getItems() == null) {
+            return;
+        }
+        for (BatchItemRequest item : request.getItems()) {
+            Long accountId = item != null && item.getType() == TransactionType.TRANSFER
+                    ? item.getFromAccountId()
+                    : item != null ? item.getAccountId() : null;
+            if (accountId != null) {
+                authorizationService.checkAccountOwner(principal, accountId);
+            }
+        }
+    }
+
+    /**
+     * Either holds the response until the movement finishes, without holding
+     * the request thread, or answers 202 at once with where to poll.
+     */
+    private CompletableFuture<ResponseEntity<?>> accepted(AcceptedMovement movement, boolean wait) {
+        if (wait) {
+            return movement.result().thenApply(ResponseEntity::ok);
+        }
+        return CompletableFuture.completedFuture(ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/async/" + movement.id()))
+                .body(asyncTransactionService.getStatus(movement.id())));
     }
 }
@@ -1,19 +1,41 @@
 package com.peracom.simple_banking.controllers;
 
+import static com.peracom.simple_banking.config.TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE;
+
+import com.peracom.simple_banking.dtos.AccessToken;
+import com.peracom.simple_banking.dtos.CursorPage;
+import com.peracom.simple_banking.dtos.ImportFormat;
 import com.peracom.simple_banking.dtos.LoginRequest;
+import com.peracom.simple_banking.dtos.LoginResponse;
 import com.peracom.simple_banking.dtos.RegisterRequest;
-import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.dtos.UserFilter;
+import com.peracom.simple_banking.dtos.UserResponse;
+import com.peracom.simple_banking.services.IAuthorizationService;
+import com.peracom.simple_banking.services.ITokenService;
+import com.peracom.simple_banking.services.IUserImportService;
 import com.peracom.simple_banking.services.IUserService;
-import java.util.List;
+import com.peracom.simple_banking.services.TokenPrincipal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
@@ -21,24 +43,85 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final IUserService userService;
+    private final ITokenService tokenService;
+    private final IUserImportService userImportService;
+    private final IAuthorizationService authorizationService;
 
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestBody RegisterRequest request) {
-        return ResponseEntity.ok(userService.register(request));
+    public CompletableFuture<ResponseEntity<UserResponse>> register(@RequestBody RegisterRequest request) {
+        return userService.register(request).thenApply(user -> ResponseEntity.ok(UserResponse.of(user)));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(userService.login(request));
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request) {
+        return userService.login(request).thenApply(user -> {
+            AccessToken token = tokenService.issue(user.getId());
+            return ResponseEntity.ok(new LoginResponse(token.getToken(), token.getExpiresAt(), UserResponse.of(user)));
+        });
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "A bearer token is required.");
+        }
+        tokenService.revoke(authorization.substring("Bearer ".length()));
+        return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Imports the rows in the request body, or in {@code path} under the
+     * server's import directory, and streams back the per-row errors and a
+     * summary as NDJSON while the import runs. Admins only.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importUsers(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            @RequestParam(defaultValue = "CSV") ImportFormat format,
+            @RequestParam(required = false) String path,
+            InputStream body) throws IOException {
+        authorizationService.checkAdmin(principal);
+        // Open the file before the response is committed, so a bad path still fails with 400 or 404
+        InputStream rows = path != null ? userImportService.openImportFile(path) : body;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try (rows) {
+                        userImportService.importUsers(rows, format, out);
+                    }
+                });
+    }
+
+    /**
+     * Lists users a page at a time, filtered by the {@link UserFilter} query
+     * parameters ({@code createdFrom}, {@code createdTo}). Admins only.
+     */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPage<UserResponse>> getUsers(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal,
+            UserFilter filter,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok(userService.getUserPage(filter, direction, cursor, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, UserFilter filter) {
+        authorizationService.checkAdmin(principal);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(out -> userService.exportUsers(filter, out));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(
+            @RequestAttribute(PRINCIPAL_ATTRIBUTE) TokenPrincipal principal, @PathVariable Long id) {
+        authorizationService.checkUser(principal, id);
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
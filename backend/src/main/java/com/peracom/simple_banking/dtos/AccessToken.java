@@ -0,0 +1,16 @@
+package com.peracom.simple_banking.dtos;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessToken {
+    private String token;
+    private Instant expiresAt;
+}
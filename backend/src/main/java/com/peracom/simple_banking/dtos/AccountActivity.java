@@ -0,0 +1,22 @@
+package com.peracom.simple_banking.dtos;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An account's activity as aggregated by
+ * {@code AccountRepository.findActivityByUserId}: when it was last debited
+ * and credited, and the sums of its credits and debits since a given time.
+ * Fields are null when there is nothing to aggregate.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountActivity {
+    private Long accountId;
+    private Instant lastDebitAt;
+    private Instant lastCreditAt;
+    private BigDecimal inflow;
+    private BigDecimal outflow;
+}
@@ -0,0 +1,27 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An account's activity over an inclusive range of UTC days: the balances
+ * at either end, the totals, and one entry per day with movements.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountActivityReport {
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private Money openingBalance;
+    private Money closingBalance;
+    private long transactionCount;
+    private Money moneyIn;
+    private Money moneyOut;
+    private Money deposits;
+    private Money withdrawals;
+    private List<DailyActivity> days;
+}
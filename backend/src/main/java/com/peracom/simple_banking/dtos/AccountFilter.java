@@ -0,0 +1,24 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.AccountStatus;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filters of the account listing; null fields do not filter. The
+ * creation-time range includes {@code createdFrom} and excludes
+ * {@code createdTo}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountFilter {
+    private AccountStatus status;
+    private Long userId;
+    private Instant createdFrom;
+    private Instant createdTo;
+}
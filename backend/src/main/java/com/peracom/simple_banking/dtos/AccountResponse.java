@@ -0,0 +1,33 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.AccountStatus;
+import com.peracom.simple_banking.model.Money;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An account as returned by the API. Read endpoints select it directly with a
+ * constructor expression, so no entity or proxy is involved.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountResponse {
+    private Long id;
+    private String accountNumber;
+    private Long userId;
+    private Money balance;
+    private AccountStatus status;
+    private Instant createdAt;
+
+    public static AccountResponse of(Account account) {
+        // The id of a lazy user proxy is read without initializing it
+        return new AccountResponse(account.getId(), account.getAccountNumber(), account.getUser().getId(),
+                account.getBalance(), account.getStatus(), account.getCreatedAt());
+    }
+
+    public AccountResponse withBalance(Money balance) {
+        return new AccountResponse(id, accountNumber, userId, balance, status, createdAt);
+    }
+}
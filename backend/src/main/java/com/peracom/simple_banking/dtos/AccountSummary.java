@@ -0,0 +1,19 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.AccountStatus;
+import com.peracom.simple_banking.model.Money;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AccountSummary {
+    private Long id;
+    private String accountNumber;
+    private Money balance;
+    private AccountStatus status;
+    private Instant lastActivityAt;
+    private Money inflow;
+    private Money outflow;
+}
@@ -0,0 +1,13 @@
+package com.peracom.simple_banking.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BackfillResult {
+    private long chunks;
+    private long accounts;
+    private long rollups;
+    private long elapsedMs;
+}
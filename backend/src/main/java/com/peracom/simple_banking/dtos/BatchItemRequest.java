@@ -0,0 +1,23 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of a batch. Deposits and withdrawals use {@code accountId};
+ * transfers use {@code fromAccountId} and {@code toAccountId}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchItemRequest {
+    private TransactionType type;
+    private Long accountId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private Money amount;
+    private String description;
+}
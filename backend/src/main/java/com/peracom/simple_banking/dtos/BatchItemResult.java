@@ -0,0 +1,24 @@
+package com.peracom.simple_banking.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        NOT_APPLIED
+    }
+
+    private int index;
+    private Status status;
+    private Long transactionId;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.peracom.simple_banking.dtos;
+
+public enum BatchMode {
+    /**
+     * Nothing is applied unless every item succeeds.
+     */
+    ALL_OR_NOTHING,
+
+    /**
+     * Valid items are applied in order; failing items are skipped.
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,14 @@
+package com.peracom.simple_banking.dtos;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchTransactionRequest {
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+    private List<BatchItemRequest> items;
+}
@@ -0,0 +1,18 @@
+package com.peracom.simple_banking.dtos;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResponse {
+    private BatchMode mode;
+    private int applied;
+    private int rejected;
+    private List<BatchItemResult> results;
+}
@@ -0,0 +1,18 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Opens an account for a user. The balance, zero when omitted, is recorded
+ * as an opening deposit.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CreateAccountRequest {
+    private Long userId;
+    private Money balance;
+}
@@ -0,0 +1,21 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One day of an account's activity, selected from its rollup.
+ */
+@Getter
+@AllArgsConstructor
+public class DailyActivity {
+    private LocalDate day;
+    private long transactionCount;
+    private Money moneyIn;
+    private Money moneyOut;
+    private Money deposits;
+    private Money withdrawals;
+    private Money closingBalance;
+}
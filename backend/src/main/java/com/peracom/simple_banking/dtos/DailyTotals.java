@@ -0,0 +1,29 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The volume of one UTC day across all accounts, by movement type.
+ */
+@Getter
+@AllArgsConstructor
+public class DailyTotals {
+    private LocalDate day;
+    private long activeAccounts;
+    private Money deposits;
+    private Money withdrawals;
+    private Money transfers;
+
+    /**
+     * Constructor for the aggregate query, where transfers are the credits
+     * that were not deposits.
+     */
+    public DailyTotals(LocalDate day, long activeAccounts, BigDecimal deposits, BigDecimal withdrawals,
+            BigDecimal moneyIn) {
+        this(day, activeAccounts, Money.of(deposits), Money.of(withdrawals), Money.of(moneyIn.subtract(deposits)));
+    }
+}
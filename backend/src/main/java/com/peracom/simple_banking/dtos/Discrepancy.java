@@ -0,0 +1,21 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An account whose stored balance is not the net of its transactions.
+ */
+@Getter
+@AllArgsConstructor
+public class Discrepancy {
+    private Long accountId;
+    private String accountNumber;
+    private Money storedBalance;
+    private Money computedBalance;
+
+    public Money getDifference() {
+        return storedBalance.minus(computedBalance);
+    }
+}
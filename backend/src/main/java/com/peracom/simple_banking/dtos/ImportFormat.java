@@ -0,0 +1,6 @@
+package com.peracom.simple_banking.dtos;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
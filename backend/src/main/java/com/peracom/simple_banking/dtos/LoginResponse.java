@@ -0,0 +1,13 @@
+package com.peracom.simple_banking.dtos;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LoginResponse {
+    private String token;
+    private Instant expiresAt;
+    private UserResponse user;
+}
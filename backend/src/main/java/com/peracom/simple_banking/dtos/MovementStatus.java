@@ -0,0 +1,34 @@
+package com.peracom.simple_banking.dtos;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementStatus {
+
+    public enum State {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private String operation;
+    /**
+     * The account debited, or credited for a deposit; its owner is the only
+     * caller who may read this status.
+     */
+    private Long accountId;
+    private State state;
+    private TransactionResponse transaction;
+    private Integer errorStatus;
+    private String error;
+    private Instant acceptedAt;
+    private Instant completedAt;
+}
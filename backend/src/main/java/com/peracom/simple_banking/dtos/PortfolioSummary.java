@@ -0,0 +1,23 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Money;
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user's accounts with their balances and recent activity. Inflows and
+ * outflows are summed from {@code windowStart}, the start of the UTC day 29
+ * days before today, to now.
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioSummary {
+    private Long userId;
+    private Instant windowStart;
+    private Money totalBalance;
+    private Money totalInflow;
+    private Money totalOutflow;
+    private List<AccountSummary> accounts;
+}
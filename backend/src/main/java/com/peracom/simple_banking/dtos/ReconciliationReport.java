@@ -0,0 +1,23 @@
+package com.peracom.simple_banking.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The outcome of a reconciliation run. Discrepancies are listed in account
+ * id order, up to the configured maximum; {@code discrepancyCount} always
+ * counts all of them.
+ */
+@Getter
+@AllArgsConstructor
+public class ReconciliationReport {
+    private Instant startedAt;
+    private long accountsChecked;
+    private long discrepancyCount;
+    private boolean truncated;
+    private long elapsedMs;
+    private double accountsPerSecond;
+    private List<Discrepancy> discrepancies;
+}
@@ -0,0 +1,16 @@
+package com.peracom.simple_banking.dtos;
+
+public enum StatementFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    StatementFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
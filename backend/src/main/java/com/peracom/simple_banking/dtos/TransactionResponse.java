@@ -0,0 +1,63 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import java.time.Instant;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.Hibernate;
+
+/**
+ * A transaction as returned by the API, with the account numbers of both
+ * sides. Read endpoints select it directly, joining the account numbers in
+ * the same query.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionResponse {
+    private Long id;
+    private TransactionType type;
+    private Money amount;
+    private Long fromAccountId;
+    private String fromAccountNumber;
+    private Long toAccountId;
+    private String toAccountNumber;
+    private Instant timestamp;
+    private String description;
+
+    /**
+     * Maps a transaction just written. Account numbers are only filled in for
+     * accounts that are already loaded, so mapping never issues a query; see
+     * {@link #withAccountNumbers} for the rest.
+     */
+    public static TransactionResponse of(Transaction transaction) {
+        Account from = transaction.getFromAccount();
+        Account to = transaction.getToAccount();
+        return new TransactionResponse(transaction.getId(), transaction.getType(), transaction.getAmount(),
+                from != null ? from.getId() : null, loadedNumberOf(from),
+                to != null ? to.getId() : null, loadedNumberOf(to),
+                transaction.getTimestamp(), transaction.getDescription());
+    }
+
+    /**
+     * Fills in the account numbers {@link #of} left out, looking them up by
+     * account id.
+     */
+    public TransactionResponse withAccountNumbers(Function<Long, String> numberOf) {
+        return new TransactionResponse(id, type, amount,
+                fromAccountId, numberOf(fromAccountId, fromAccountNumber, numberOf),
+                toAccountId, numberOf(toAccountId, toAccountNumber, numberOf),
+                timestamp, description);
+    }
+
+    private static String numberOf(Long accountId, String known, Function<Long, String> numberOf) {
+        return known != null || accountId == null ? known : numberOf.apply(accountId);
+    }
+
+    private static String loadedNumberOf(Account account) {
+        return account != null && Hibernate.isInitialized(account) ? account.getAccountNumber() : null;
+    }
+}
@@ -1,6 +1,6 @@
 package com.peracom.simple_banking.dtos;
 
-import java.math.BigDecimal;
+import com.peracom.simple_banking.model.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,6 +11,6 @@ import lombok.Setter;
 public class TransferRequest {
     private Long fromAccountId;
     private Long toAccountId;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
 }
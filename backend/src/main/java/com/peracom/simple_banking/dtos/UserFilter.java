@@ -0,0 +1,20 @@
+package com.peracom.simple_banking.dtos;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filters of the user listing; null fields do not filter. The creation-time
+ * range includes {@code createdFrom} and excludes {@code createdTo}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+    private Instant createdFrom;
+    private Instant createdTo;
+}
@@ -0,0 +1,23 @@
+package com.peracom.simple_banking.dtos;
+
+import com.peracom.simple_banking.model.User;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user as returned by the API. The admin listings select it directly with
+ * a constructor expression.
+ */
+@Getter
+@AllArgsConstructor
+public class UserResponse {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final Instant createdAt;
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getName(), user.getEmail(), user.getCreatedAt());
+    }
+}
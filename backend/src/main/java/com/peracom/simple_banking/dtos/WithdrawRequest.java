@@ -1,6 +1,6 @@
 package com.peracom.simple_banking.dtos;
 
-import java.math.BigDecimal;
+import com.peracom.simple_banking.model.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,6 +10,6 @@ import lombok.Setter;
 @NoArgsConstructor
 public class WithdrawRequest {
     private Long accountId;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
 }
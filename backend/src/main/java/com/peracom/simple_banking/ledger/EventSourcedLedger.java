@@ -0,0 +1,200 @@
+package com.peracom.simple_banking.ledger;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.BalanceSnapshot;
+import com.peracom.simple_banking.model.LedgerPosting;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.BalanceSnapshotRepository;
+import com.peracom.simple_banking.repository.LedgerPostingRepository;
+import com.peracom.simple_banking.repository.LedgerPostingRepository.SnapshotDelta;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.services.AccountChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Event-sourced balances. Every money movement appends a debit and a credit
+ * {@link LedgerPosting} that sum to zero, with
+ * {@link LedgerPosting#EXTERNAL_ACCOUNT_ID} on the far side of deposits and
+ * withdrawals, and the {@code accounts} row is never updated on the write
+ * path. An account's balance is its latest {@link BalanceSnapshot}, or the
+ * opening balance on its row until it has one, plus the postings since.
+ *
+ * <p>Credits take no lock. Debits lock the debited account row, without
+ * updating it, so that concurrent withdrawals cannot overdraw it. A scheduled
+ * snapshotter folds postings into the snapshots once they are older than the
+ * settle period, which must exceed the longest write transaction so that a
+ * posting is never skipped because it committed after a younger one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.event-sourcing.enabled", havingValue = "true")
+public class EventSourcedLedger {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerPostingRepository postingRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${banking.event-sourcing.settle:PT1M}")
+    private Duration settle;
+
+    /**
+     * Appends a deposit. This and the other movements must run inside a
+     * transaction.
+     */
+    public Transaction deposit(Long accountId, Money amount, String description) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found."));
+        return record(newTransaction(TransactionType.DEPOSIT, null, account, amount, description));
+    }
+
+    public Transaction withdraw(Long accountId, Money amount, String description) {
+        Account account = lockForDebit(accountId, "Account not found.");
+        if (balanceOf(accountId).isLessThan(amount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance.");
+        }
+        return record(newTransaction(TransactionType.WITHDRAW, account, null, amount, description));
+    }
+
+    public Transaction transfer(Long fromAccountId, Long toAccountId, Money amount, String description) {
+        // Only the source is locked, so opposite transfers cannot deadlock
+        Account from = lockForDebit(fromAccountId, "Source account not found.");
+        Account to = accountRepository.findById(toAccountId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination account not found."));
+        if (balanceOf(fromAccountId).isLessThan(amount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance in source account.");
+        }
+        return record(newTransaction(TransactionType.TRANSFER, from, to, amount, description));
+    }
+
+    /**
+     * Saves a transaction and appends its postings. The caller must already
+     * hold the lock of the debited account and have checked its balance.
+     */
+    public Transaction record(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        Account from = saved.getFromAccount();
+        Account to = saved.getToAccount();
+        Instant now = Instant.now();
+        postingRepository.saveAll(List.of(
+                posting(saved, from != null ? from.getId() : LedgerPosting.EXTERNAL_ACCOUNT_ID,
+                        saved.getAmount().negate(), now),
+                posting(saved, to != null ? to.getId() : LedgerPosting.EXTERNAL_ACCOUNT_ID,
+                        saved.getAmount(), now)));
+        if (from != null) {
+            eventPublisher.publishEvent(AccountChangedEvent.of(from));
+        }
+        if (to != null) {
+            eventPublisher.publishEvent(AccountChangedEvent.of(to));
+        }
+        return saved;
+    }
+
+    public Money balanceOf(Long accountId) {
+        Money balance = balancesOf(List.of(accountId)).get(accountId);
+        if (balance == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found.");
+        }
+        return balance;
+    }
+
+    /**
+     * Returns the current balance of each existing account among the ids.
+     */
+    public Map<Long, Money> balancesOf(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        return postingRepository.findBalances(accountIds).stream()
+                .collect(Collectors.toMap(
+                        LedgerPostingRepository.DerivedBalance::getAccountId,
+                        balance -> Money.of(balance.getBalance())));
+    }
+
+    /**
+     * Folds every settled posting into its account's snapshot and copies the
+     * new balance to the account row, all in one transaction. Snapshots are
+     * versioned, so when two nodes race only one fold commits.
+     */
+    @Scheduled(fixedDelayString = "${banking.event-sourcing.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        Instant asOf = Instant.now().minus(settle);
+        try {
+            Integer folded = transactionTemplate.execute(status -> fold(asOf));
+            if (folded != null && folded > 0) {
+                log.debug("Snapshotted {} account balances as of {}", folded, asOf);
+            }
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            log.info("Balance snapshot as of {} lost a race and will be retried: {}", asOf, e.getMessage());
+        }
+    }
+
+    private int fold(Instant asOf) {
+        List<SnapshotDelta> deltas = postingRepository.findUnsnapshotted(asOf);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Map<Long, BalanceSnapshot> snapshots = new HashMap<>(snapshotRepository
+                .findAllById(deltas.stream().map(SnapshotDelta::getAccountId).toList()).stream()
+                .collect(Collectors.toMap(BalanceSnapshot::getAccountId, Function.identity())));
+        for (SnapshotDelta delta : deltas) {
+            Money balance = Money.of(delta.getBase()).plus(Money.of(delta.getTotal()));
+            BalanceSnapshot snapshot = snapshots.computeIfAbsent(delta.getAccountId(), BalanceSnapshot::new);
+            snapshot.setBalance(balance);
+            snapshot.setAsOf(asOf);
+            accountRepository.updateBalance(delta.getAccountId(), balance);
+        }
+        snapshotRepository.saveAll(snapshots.values());
+        return deltas.size();
+    }
+
+    private Account lockForDebit(Long accountId, String notFoundMessage) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage));
+    }
+
+    private static Transaction newTransaction(
+            TransactionType type, Account from, Account to, Money amount, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        transaction.setDescription(description);
+        return transaction;
+    }
+
+    private static LedgerPosting posting(Transaction transaction, long accountId, Money amount, Instant createdAt) {
+        LedgerPosting posting = new LedgerPosting();
+        posting.setTransactionId(transaction.getId());
+        posting.setAccountId(accountId);
+        posting.setAmount(amount);
+        posting.setCreatedAt(createdAt);
+        return posting;
+    }
+}
@@ -0,0 +1,24 @@
+package com.peracom.simple_banking.ledger;
+
+import com.peracom.simple_banking.model.TransactionType;
+import java.time.Instant;
+
+/**
+ * A money movement that has been applied in memory and is waiting to be
+ * written to the database. Amounts and resulting balances are in minor units
+ * (cents); a balance is only meaningful when the matching account id is set.
+ * The transaction id is assigned when the movement is applied, so the caller
+ * is told the id its row will have before the row is written.
+ */
+public record JournalEntry(
+        long sequence,
+        long transactionId,
+        TransactionType type,
+        Long fromAccountId,
+        Long toAccountId,
+        long amount,
+        long fromBalance,
+        long toBalance,
+        String description,
+        Instant timestamp) {
+}
@@ -0,0 +1,533 @@
+package com.peracom.simple_banking.ledger;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.LedgerCheckpoint;
+import com.peracom.simple_banking.model.LedgerDeadLetter;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.LedgerCheckpointRepository;
+import com.peracom.simple_banking.repository.LedgerDeadLetterRepository;
+import com.peracom.simple_banking.services.AccountChangedEvent;
+import com.peracom.simple_banking.services.TransactionPostedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Write-behind journal for the in-memory ledger. Entries are queued in the
+ * order they were applied and a single writer thread persists them in batches,
+ * one database transaction per batch, so the {@code accounts} and
+ * {@code transactions} tables always move together.
+ *
+ * <p>With {@code banking.ledger.wal.enabled} every entry is first written to a
+ * local {@link WriteAheadLog} and a movement is acknowledged once its entry is
+ * durable there. Each batch records the last sequence it applied in
+ * {@code ledger_checkpoints} in the same transaction, and on startup the
+ * entries after that checkpoint are replayed before the ledger recovers.
+ *
+ * <p>A batch the database refuses is retried one entry at a time. While the
+ * database is unreachable the writer keeps retrying, but an entry that fails
+ * on its own for any other reason is quarantined in
+ * {@code ledger_dead_letters}, logged and counted in
+ * {@code banking.ledger.quarantined}, so one bad entry cannot stall every
+ * movement behind it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerJournal {
+
+    private static final String CHECKPOINT = "journal";
+
+    private static final String INSERT_TRANSACTION = """
+            INSERT INTO transactions (id, type, amount, from_account_id, to_account_id, timestamp, description)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactory backgroundThreadFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final LedgerDeadLetterRepository deadLetterRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${banking.ledger.journal-capacity:65536}")
+    private int capacity;
+
+    @Value("${banking.ledger.batch-size:500}")
+    private int batchSize;
+
+    @Value("${banking.ledger.id-block-size:100}")
+    private int idBlockSize;
+
+    @Value("${banking.ledger.wal.enabled:false}")
+    private boolean walEnabled;
+
+    @Value("${banking.ledger.wal.directory:./data/ledger-wal}")
+    private Path walDirectory;
+
+    @Value("${banking.ledger.wal.segment-size:64MB}")
+    private DataSize walSegmentSize;
+
+    @Value("${banking.ledger.wal.sync:BATCH}")
+    private WalSyncPolicy walSync;
+
+    @Value("${banking.ledger.wal.sync-interval-ms:1}")
+    private long walSyncIntervalMs;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private BlockingQueue<JournalEntry> queue;
+    private WriteAheadLog wal;
+    private Thread writer;
+    private Thread syncer;
+    private volatile boolean running;
+    private SessionFactoryImplementor sessionFactory;
+    private BeforeExecutionGenerator idGenerator;
+    private volatile IdBlock ids = new IdBlock(new long[0]);
+    private Counter quarantined;
+
+    @PostConstruct
+    void start() throws IOException {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        // The sequence generator assigns ids before the insert, so it can be called on its own
+        idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Transaction.class).getGenerator();
+        quarantined = Counter.builder("banking.ledger.quarantined")
+                .description("Journal entries the database refused, moved to ledger_dead_letters")
+                .register(meterRegistry);
+        queue = new ArrayBlockingQueue<>(capacity);
+        if (walEnabled) {
+            openWriteAheadLog();
+        }
+        running = true;
+        writer = backgroundThreadFactory.newThread(this::writeLoop);
+        writer.setName("ledger-journal-writer");
+        writer.start();
+        if (wal != null && walSync == WalSyncPolicy.BATCH) {
+            syncer = backgroundThreadFactory.newThread(this::syncLoop);
+            syncer.setName("ledger-wal-syncer");
+            syncer.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (syncer != null) {
+            syncer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * Hands out the id of the next movement's row. Ids come from Hibernate's
+     * own generator for {@link Transaction}, so they never collide with rows
+     * inserted through JPA, and are leased a block at a time so most cost one
+     * atomic increment. Leasing may query the database, so call this before
+     * taking any account lock; the id of a movement that is then rejected is
+     * skipped, as a sequence skips the ids of rolled back inserts.
+     */
+    long nextTransactionId() {
+        while (true) {
+            IdBlock block = ids;
+            int index = block.next.getAndIncrement();
+            if (index < block.ids.length) {
+                return block.ids[index];
+            }
+            // Only the first thread to find the block spent leases the next one
+            synchronized (this) {
+                if (ids == block) {
+                    ids = leaseIds();
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers an entry and queues it for persistence, blocking while the
+     * journal is full. Callers must hold the locks of every account the entry
+     * touches until this returns so entries for one account reach the queue in
+     * sequence order, and must only apply the movement once it returns.
+     */
+    JournalEntry append(long transactionId, TransactionType type, Long fromAccountId, Long toAccountId, long amount,
+            long fromBalance, long toBalance, String description) {
+        if (wal == null) {
+            return enqueue(new JournalEntry(sequence.incrementAndGet(), transactionId, type, fromAccountId,
+                    toAccountId, amount, fromBalance, toBalance, description, Instant.now()));
+        }
+
+        // Numbering, logging and queueing under one lock keeps the log and the queue in sequence order
+        appendLock.lock();
+        try {
+            JournalEntry entry = new JournalEntry(sequence.get() + 1, transactionId, type, fromAccountId,
+                    toAccountId, amount, fromBalance, toBalance, description, Instant.now());
+            wal.append(entry);
+            sequence.set(entry.sequence());
+            return enqueue(entry);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write to the ledger write-ahead log.", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the entry with the given sequence survives a crash. Returns
+     * at once without a write-ahead log.
+     */
+    void awaitDurable(long sequence) {
+        if (wal == null) {
+            return;
+        }
+        try {
+            wal.awaitDurable(sequence);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while syncing the ledger write-ahead log.", e);
+        }
+    }
+
+    /**
+     * Blocks until everything appended so far has been written to the database.
+     *
+     * @return {@code true} if the journal caught up before the timeout
+     */
+    public boolean awaitPersisted(Duration timeout) throws InterruptedException {
+        long target = appended.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (persisted.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Applies the logged entries the last run did not get to, then starts a
+     * fresh segment for this run.
+     */
+    private void openWriteAheadLog() throws IOException {
+        long applied = checkpointRepository.findById(CHECKPOINT)
+                .map(LedgerCheckpoint::getAppliedSequence)
+                .orElse(0L);
+        wal = new WriteAheadLog(walDirectory, Math.toIntExact(walSegmentSize.toBytes()), walSync);
+
+        List<JournalEntry> unapplied = wal.recover(applied);
+        for (int from = 0; from < unapplied.size(); from += batchSize) {
+            write(new ArrayList<>(unapplied.subList(from, Math.min(from + batchSize, unapplied.size()))));
+        }
+        if (!unapplied.isEmpty()) {
+            log.info("Replayed {} ledger journal entries from the write-ahead log", unapplied.size());
+        }
+
+        sequence.set(Math.max(applied, wal.lastSequence()));
+        wal.release(sequence.get());
+        wal.open(sequence.get() + 1);
+    }
+
+    /**
+     * Moves an entry onto the queue. Once numbered an entry must reach the
+     * writer, so an interrupt only takes effect after it is queued.
+     */
+    private JournalEntry enqueue(JournalEntry entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        appended.incrementAndGet();
+        return entry;
+    }
+
+    private void syncLoop() {
+        while (running) {
+            try {
+                // Back to back while appends keep coming, so each fsync covers whatever arrived during the last one
+                if (!wal.sync()) {
+                    Thread.sleep(walSyncIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to sync the ledger write-ahead log, retrying", e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The database is unreachable: keep what is left of the batch and try again
+                log.error("Failed to persist {} ledger journal entries, retrying", batch.size(), e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Persists a batch in one transaction, or entry by entry if the database
+     * refuses it, quarantining entries that fail on their own. Removes each
+     * entry from the batch once it is dealt with and rethrows failures that
+     * mean the database is unreachable, leaving the rest for the next try.
+     */
+    private void write(List<JournalEntry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            applied(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Failed to persist {} ledger journal entries together, persisting them one at a time",
+                    batch.size(), e);
+        }
+
+        while (!batch.isEmpty()) {
+            List<JournalEntry> single = batch.subList(0, 1);
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(single));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                quarantine(single.get(0), e);
+            }
+            applied(single);
+        }
+    }
+
+    /**
+     * Counts entries as persisted and drops them from the batch.
+     */
+    private void applied(List<JournalEntry> entries) {
+        long last = entries.get(entries.size() - 1).sequence();
+        persisted.addAndGet(entries.size());
+        entries.clear();
+        releaseSegments(last);
+    }
+
+    /**
+     * Failures that say nothing about the entry itself: the next attempt may
+     * well succeed, so the entry must be kept.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionSystemException;
+    }
+
+    /**
+     * Moves an entry the database refused to {@code ledger_dead_letters}, in
+     * the transaction that moves the checkpoint past it. The movement already
+     * happened in memory and later balances include it, so it is logged in
+     * full and counted for whoever has to repair it.
+     */
+    private void quarantine(JournalEntry entry, RuntimeException error) {
+        quarantined.increment();
+        log.error("Quarantined ledger journal entry {} after the database refused it", entry, error);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deadLetterRepository.save(deadLetterOf(entry, error));
+                saveCheckpoint(entry.sequence());
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to store quarantined ledger journal entry {}; this log is its only record",
+                    entry.sequence(), e);
+        }
+    }
+
+    private static LedgerDeadLetter deadLetterOf(JournalEntry entry, RuntimeException error) {
+        LedgerDeadLetter deadLetter = new LedgerDeadLetter();
+        deadLetter.setTransactionId(entry.transactionId());
+        deadLetter.setJournalSequence(entry.sequence());
+        deadLetter.setType(entry.type());
+        deadLetter.setFromAccountId(entry.fromAccountId());
+        deadLetter.setToAccountId(entry.toAccountId());
+        deadLetter.setAmount(Money.ofMinor(entry.amount()));
+        deadLetter.setTimestamp(entry.timestamp());
+        deadLetter.setDescription(entry.description());
+        String message = String.valueOf(error.getMessage());
+        deadLetter.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        deadLetter.setQuarantinedAt(Instant.now());
+        return deadLetter;
+    }
+
+    /**
+     * Writes the movements with the ids they were acknowledged with, which
+     * JPA will not insert for a generated id, so the rows go in through JDBC
+     * and the {@link TransactionPostedEvent} is published here.
+     */
+    private void persist(List<JournalEntry> batch) {
+        Set<Long> accountIds = new HashSet<>();
+        for (JournalEntry entry : batch) {
+            if (entry.fromAccountId() != null) {
+                accountIds.add(entry.fromAccountId());
+            }
+            if (entry.toAccountId() != null) {
+                accountIds.add(entry.toAccountId());
+            }
+        }
+        Map<Long, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (JournalEntry entry : batch) {
+            if (entry.fromAccountId() != null) {
+                accountOf(accounts, entry, entry.fromAccountId()).setBalance(Money.ofMinor(entry.fromBalance()));
+            }
+            if (entry.toAccountId() != null) {
+                accountOf(accounts, entry, entry.toAccountId()).setBalance(Money.ofMinor(entry.toBalance()));
+            }
+            rows.add(new Object[] { entry.transactionId(), entry.type().name(),
+                    Money.ofMinor(entry.amount()).toBigDecimal(), entry.fromAccountId(), entry.toAccountId(),
+                    Timestamp.from(entry.timestamp()), entry.description() });
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+        saveCheckpoint(batch.get(batch.size() - 1).sequence());
+        for (JournalEntry entry : batch) {
+            eventPublisher.publishEvent(new TransactionPostedEvent(entry.type(), entry.fromAccountId(),
+                    entry.toAccountId(), Money.ofMinor(entry.amount()), entry.timestamp()));
+        }
+        accounts.values().forEach(account -> eventPublisher.publishEvent(AccountChangedEvent.of(account)));
+    }
+
+    private void saveCheckpoint(long appliedSequence) {
+        if (wal != null) {
+            checkpointRepository.save(new LedgerCheckpoint(CHECKPOINT, appliedSequence));
+        }
+    }
+
+    private IdBlock leaseIds() {
+        long[] leased = new long[idBlockSize];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < leased.length; i++) {
+                leased[i] = ((Number) idGenerator.generate(
+                        (SharedSessionContractImplementor) session, null, null, EventType.INSERT)).longValue();
+            }
+        }
+        return new IdBlock(leased);
+    }
+
+    private static Account accountOf(Map<Long, Account> accounts, JournalEntry entry, Long accountId) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new IllegalStateException(
+                    "Journal entry " + entry.sequence() + " references unknown account " + accountId + ".");
+        }
+        return account;
+    }
+
+    private void releaseSegments(long appliedSequence) {
+        if (wal == null) {
+            return;
+        }
+        try {
+            wal.release(appliedSequence);
+        } catch (IOException e) {
+            log.warn("Failed to delete applied write-ahead log segments", e);
+        }
+    }
+
+    private static final class IdBlock {
+        private final long[] ids;
+        private final AtomicInteger next = new AtomicInteger();
+
+        private IdBlock(long[] ids) {
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.peracom.simple_banking.ledger;
+
+/**
+ * When appends to the write-ahead log are forced to disk before a movement is
+ * acknowledged.
+ */
+public enum WalSyncPolicy {
+    /**
+     * Never forced; the operating system writes the mapped pages back in its
+     * own time. Survives a process crash but not a power loss.
+     */
+    NONE,
+
+    /**
+     * A background syncer forces everything appended so far every few
+     * milliseconds and acknowledgements wait for it, so one fsync covers every
+     * movement that arrived in between.
+     */
+    BATCH,
+
+    /**
+     * Every append is forced before the next one is written.
+     */
+    ALWAYS
+}
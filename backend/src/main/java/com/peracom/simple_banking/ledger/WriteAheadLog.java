@@ -0,0 +1,372 @@
+package com.peracom.simple_banking.ledger;
+
+import com.peracom.simple_banking.model.TransactionType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local write-ahead log of {@link JournalEntry journal entries} in
+ * memory-mapped segment files named after the first sequence they hold. Each
+ * record is framed as {@code [length][crc32c][payload]}; a zero length marks
+ * the unused tail of a segment, and a record that fails its checksum at the end
+ * of the last segment is a write torn by a crash and ends the log.
+ *
+ * <p>Appends must be serialized by the caller and arrive in sequence order.
+ * {@link #awaitDurable} and {@link #sync} may be called from any thread.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private static final String SUFFIX = ".wal";
+    private static final int HEADER_SIZE = 8;
+    // sequence, transaction id, type, from and to account, amount, from and to balance,
+    // timestamp seconds and nanos, description length
+    static final int FIXED_PAYLOAD_SIZE = Long.BYTES + Long.BYTES + Byte.BYTES + 5 * Long.BYTES
+            + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final WalSyncPolicy syncPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final CRC32C checksum = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private MappedByteBuffer active;
+    private int position;
+    private int syncedPosition;
+    private long lastSequence;
+    private long durableSequence;
+    private boolean closed;
+
+    WriteAheadLog(Path directory, int segmentSize, WalSyncPolicy syncPolicy) {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Write-ahead log segments must be at least 64KB.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * Reads every segment in the directory and returns the entries after
+     * {@code afterSequence}, oldest first. Must be called once, before
+     * {@link #open}.
+     */
+    List<JournalEntry> recover(long afterSequence) throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequenceOf(file), file));
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        Iterator<Path> files = segments.values().iterator();
+        while (files.hasNext()) {
+            Path file = files.next();
+            for (JournalEntry entry : read(file, !files.hasNext())) {
+                lastSequence = entry.sequence();
+                if (entry.sequence() > afterSequence) {
+                    entries.add(entry);
+                }
+            }
+        }
+        durableSequence = lastSequence;
+        return entries;
+    }
+
+    /**
+     * Starts a fresh segment for appends from the given sequence on. Older
+     * segments are never written again, so a torn tail left by a crash is not
+     * appended after.
+     */
+    void open(long nextSequence) throws IOException {
+        lock.lock();
+        try {
+            lastSequence = Math.max(lastSequence, nextSequence - 1);
+            durableSequence = lastSequence;
+            rotate(lastSequence + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void append(JournalEntry entry) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The write-ahead log is closed.");
+            }
+            encode(entry);
+            int length = scratch.remaining();
+            if (HEADER_SIZE + length > segmentSize) {
+                throw new IllegalArgumentException("Journal entry does not fit in a write-ahead log segment.");
+            }
+            if (position + HEADER_SIZE + length > segmentSize) {
+                rotate(entry.sequence());
+            }
+
+            checksum.reset();
+            checksum.update(scratch.array(), 0, length);
+            int start = position;
+            active.put(start + HEADER_SIZE, scratch.array(), 0, length);
+            active.putInt(start + 4, (int) checksum.getValue());
+            active.putInt(start, length);
+            position += HEADER_SIZE + length;
+            lastSequence = entry.sequence();
+
+            if (syncPolicy == WalSyncPolicy.ALWAYS) {
+                active.force(syncedPosition, position - syncedPosition);
+                syncedPosition = position;
+            }
+            if (syncPolicy != WalSyncPolicy.BATCH) {
+                durableSequence = lastSequence;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk and releases the
+     * acknowledgements waiting for it. The force itself runs without the lock,
+     * so appends continue meanwhile.
+     *
+     * @return {@code false} if there was nothing to force
+     */
+    boolean sync() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        long sequence;
+        lock.lock();
+        try {
+            if (closed || durableSequence == lastSequence) {
+                return false;
+            }
+            buffer = active;
+            from = syncedPosition;
+            to = position;
+            sequence = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+
+        buffer.force(from, to - from);
+
+        lock.lock();
+        try {
+            if (buffer == active) {
+                syncedPosition = Math.max(syncedPosition, to);
+            }
+            durableSequence = Math.max(durableSequence, sequence);
+            synced.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the entry with the given sequence is on disk. Returns at
+     * once unless the sync policy is {@link WalSyncPolicy#BATCH}.
+     */
+    void awaitDurable(long sequence) throws InterruptedException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (closed) {
+                    throw new IllegalStateException("The write-ahead log closed before the entry was synced.");
+                }
+                synced.await(100, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose entries have all been applied to the database.
+     */
+    void release(long appliedSequence) throws IOException {
+        List<Path> obsolete = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Path> segment = it.next();
+                Long next = segments.higherKey(segment.getKey());
+                if (next == null || next - 1 > appliedSequence) {
+                    break;
+                }
+                obsolete.add(segment.getValue());
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path file : obsolete) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (active != null && syncPolicy != WalSyncPolicy.NONE) {
+                active.force(syncedPosition, position - syncedPosition);
+                durableSequence = lastSequence;
+            }
+            closed = true;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Maps a new segment starting at the given sequence. Caller holds the lock.
+     */
+    private void rotate(long firstSequence) throws IOException {
+        if (active != null && syncPolicy != WalSyncPolicy.NONE) {
+            active.force(syncedPosition, position - syncedPosition);
+        }
+
+        // A file with this name can only be left over empty, since no entry with this sequence was read back
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            channel.force(true);
+        }
+        segments.put(firstSequence, file);
+        position = 0;
+        syncedPosition = 0;
+    }
+
+    private List<JournalEntry> read(Path file, boolean last) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C crc = new CRC32C();
+            int offset = 0;
+            while (offset + HEADER_SIZE <= buffer.limit()) {
+                int length = buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                boolean valid = length > 0 && offset + HEADER_SIZE + length <= buffer.limit();
+                if (valid) {
+                    crc.reset();
+                    crc.update(buffer.slice(offset + HEADER_SIZE, length));
+                    valid = (int) crc.getValue() == buffer.getInt(offset + 4);
+                }
+                if (!valid) {
+                    if (!last) {
+                        throw new IllegalStateException(
+                                "Write-ahead log segment " + file + " is corrupt at offset " + offset + ".");
+                    }
+                    log.warn("Write-ahead log ends with a torn record at offset {} of {}", offset, file);
+                    break;
+                }
+                entries.add(decode(buffer.slice(offset + HEADER_SIZE, length)));
+                offset += HEADER_SIZE + length;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Writes the entry into the scratch buffer. Types are stored by ordinal,
+     * so new transaction types must only ever be added at the end.
+     */
+    private void encode(JournalEntry entry) {
+        byte[] description = entry.description() != null
+                ? entry.description().getBytes(StandardCharsets.UTF_8)
+                : null;
+        int size = FIXED_PAYLOAD_SIZE + (description != null ? description.length : 0);
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+        scratch.clear();
+        scratch.putLong(entry.sequence())
+                .putLong(entry.transactionId())
+                .put((byte) entry.type().ordinal())
+                .putLong(entry.fromAccountId() != null ? entry.fromAccountId() : 0)
+                .putLong(entry.toAccountId() != null ? entry.toAccountId() : 0)
+                .putLong(entry.amount())
+                .putLong(entry.fromBalance())
+                .putLong(entry.toBalance())
+                .putLong(entry.timestamp().getEpochSecond())
+                .putInt(entry.timestamp().getNano());
+        if (description != null) {
+            scratch.putInt(description.length).put(description);
+        } else {
+            scratch.putInt(-1);
+        }
+        scratch.flip();
+    }
+
+    private static JournalEntry decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long transactionId = payload.getLong();
+        TransactionType type = TYPES[payload.get()];
+        long fromAccountId = payload.getLong();
+        long toAccountId = payload.getLong();
+        long amount = payload.getLong();
+        long fromBalance = payload.getLong();
+        long toBalance = payload.getLong();
+        Instant timestamp = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+        int descriptionLength = payload.getInt();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            payload.get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new JournalEntry(sequence, transactionId, type, fromAccountId != 0 ? fromAccountId : null,
+                toAccountId != 0 ? toAccountId : null, amount, fromBalance, toBalance, description, timestamp);
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
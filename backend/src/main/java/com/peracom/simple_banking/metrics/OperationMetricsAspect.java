@@ -0,0 +1,86 @@
+package com.peracom.simple_banking.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Times every operation of the service interfaces as {@code banking.operation},
+ * tagged with the service, the operation and the HTTP status the outcome maps
+ * to, and tracks calls in progress as {@code banking.operation.in.flight}.
+ * Other public methods of the services, such as scheduled jobs and hooks for
+ * other components, are not operations and are left alone.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class OperationMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    @Around("execution(public * (com.peracom.simple_banking.services.I*Service && is(InterfaceType)).*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getTarget().getClass().getSimpleName();
+        String operation = joinPoint.getSignature().getName();
+        AtomicInteger running = inFlight(service, operation);
+
+        running.incrementAndGet();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            finish(service, operation, running, start, e);
+            throw e;
+        }
+        // Asynchronous operations are measured until their future completes
+        if (result instanceof CompletableFuture<?> future) {
+            return future.whenComplete((value, error) -> finish(service, operation, running, start, error));
+        }
+        finish(service, operation, running, start, null);
+        return result;
+    }
+
+    private void finish(String service, String operation, AtomicInteger running, long start, Throwable error) {
+        long elapsed = System.nanoTime() - start;
+        running.decrementAndGet();
+        int status = statusOf(error);
+        Timer.builder("banking.operation")
+                .description("Latency of banking service operations")
+                .tags("service", service, "operation", operation,
+                        "outcome", Outcome.forStatus(status).name(), "status", String.valueOf(status))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private static int statusOf(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error == null) {
+            return 200;
+        }
+        return error instanceof ResponseStatusException e ? e.getStatusCode().value() : 500;
+    }
+
+    private AtomicInteger inFlight(String service, String operation) {
+        return inFlight.computeIfAbsent(service + '.' + operation, key -> meterRegistry.gauge(
+                "banking.operation.in.flight",
+                Tags.of("service", service, "operation", operation),
+                new AtomicInteger()));
+    }
+}
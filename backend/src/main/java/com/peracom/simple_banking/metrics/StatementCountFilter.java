@@ -0,0 +1,87 @@
+package com.peracom.simple_banking.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the statements counted by {@link StatementCounter} for each request
+ * as {@code banking.request.db.statements}, tagged like {@code http.server.requests}.
+ * The request holds its scope until the response is complete, so asynchronous
+ * requests and streamed bodies are recorded once all of their work is done.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicReference<Tags> tags = new AtomicReference<>(Tags.empty());
+        StatementCounter.Scope scope = StatementCounter.open(statements -> record(tags.get(), statements));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StatementCounter.unbind();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            tags.set(Tags.of("method", request.getMethod(), "uri", uri != null ? uri.toString() : "UNKNOWN"));
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(scope));
+            } else {
+                scope.release();
+            }
+        }
+    }
+
+    private void record(Tags tags, int statements) {
+        DistributionSummary.builder("banking.request.db.statements")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statements);
+    }
+
+    /**
+     * Completion follows errors and timeouts too, so it is the only event
+     * that releases.
+     */
+    private record ReleaseOnComplete(StatementCounter.Scope scope) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            scope.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.peracom.simple_banking.metrics;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares, which is how many database
+ * round-trips a request costs (a JDBC batch counts once). Statements count
+ * towards the {@link Scope} bound to the thread that prepares them; work a
+ * request hands to another thread carries its scope along through
+ * {@link #supplyAsync}, {@link #thenApplyAsync}, {@link #propagate} or
+ * {@link #capture}, and the scope is recorded once its last holder releases
+ * it.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count();
+        }
+        return sql;
+    }
+
+    /**
+     * Opens a scope on the current thread, held by the caller until it calls
+     * {@link Scope#release}.
+     */
+    static Scope open(IntConsumer onClose) {
+        Scope scope = new Scope(onClose, null);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Takes a hold on the current thread's scope for work that runs elsewhere,
+     * or returns null outside of one. The holder must release it.
+     */
+    public static Scope capture() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.holders.incrementAndGet();
+        }
+        return scope;
+    }
+
+    /**
+     * A scope crediting each of the given ones with every statement, for work
+     * such as a group commit that all of them wait on. Null scopes are skipped.
+     */
+    public static Scope sharedBy(List<Scope> scopes) {
+        return new Scope(null, scopes.stream().filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * Runs the work with statements counting towards the scope, which may be
+     * null, and restores the thread's previous scope afterwards.
+     */
+    public static <T> T runIn(Scope scope, Supplier<T> work) {
+        if (scope == null) {
+            return work.get();
+        }
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs the work on the executor with statements counting towards the
+     * current thread's scope, as {@link CompletableFuture#supplyAsync} does.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> work, Executor executor) {
+        Scope scope = capture();
+        if (scope == null) {
+            return CompletableFuture.supplyAsync(work, executor);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return runIn(scope, work);
+                } finally {
+                    scope.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            scope.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the function on the executor once the future completes, as
+     * {@link CompletableFuture#thenApplyAsync} does, with statements counting
+     * towards the current thread's scope.
+     */
+    public static <T, R> CompletableFuture<R> thenApplyAsync(
+            CompletableFuture<T> future, Function<? super T, ? extends R> fn, Executor executor) {
+        Scope scope = capture();
+        if (scope == null) {
+            return future.thenApplyAsync(fn, executor);
+        }
+        CompletableFuture<R> applied = future.thenApplyAsync(value -> runIn(scope, () -> fn.apply(value)), executor);
+        // Also runs when the future failed or the executor refused, so the hold is always let go
+        applied.whenComplete((result, error) -> scope.release());
+        return applied;
+    }
+
+    /**
+     * Wraps the task to count towards the current thread's scope wherever it
+     * runs. The wrapper must run exactly once.
+     */
+    public static Runnable propagate(Runnable task) {
+        Scope scope = capture();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            try {
+                runIn(scope, () -> {
+                    task.run();
+                    return null;
+                });
+            } finally {
+                scope.release();
+            }
+        };
+    }
+
+    public static final class Scope {
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger holders = new AtomicInteger(1);
+        private final IntConsumer onClose;
+        private final List<Scope> members;
+
+        private Scope(IntConsumer onClose, List<Scope> members) {
+            this.onClose = onClose;
+            this.members = members;
+        }
+
+        private void count() {
+            if (members == null) {
+                statements.incrementAndGet();
+                return;
+            }
+            members.forEach(Scope::count);
+        }
+
+        public void release() {
+            if (holders.decrementAndGet() == 0 && onClose != null) {
+                onClose.accept(statements.get());
+            }
+        }
+    }
+}
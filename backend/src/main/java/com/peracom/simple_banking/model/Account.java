@@ -8,25 +8,53 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A user's account. Like {@link Transaction}, the fixed queries selecting
+ * {@link com.peracom.simple_banking.dtos.AccountResponse} directly are named
+ * queries; the filtered admin listing is built per combination of filters by
+ * {@link com.peracom.simple_banking.repository.AccountListingRepository}.
+ */
 @Entity
-@Table(name = "accounts")
+@NamedQuery(name = "Account.findResponseById", query = Account.SELECT_RESPONSE + " where a.id = :id")
+@NamedQuery(name = "Account.findResponsesByUserId", query = Account.SELECT_RESPONSE
+        + " where a.user.id = :userId order by a.id")
+@NamedQuery(name = "Account.findActivityByUserId", query = "select new com.peracom.simple_banking.dtos.AccountActivity("
+        + "a.id, "
+        + "(select max(t.timestamp) from Transaction t where t.fromAccount.id = a.id), "
+        + "(select max(t.timestamp) from Transaction t where t.toAccount.id = a.id), "
+        + "(select sum(t.amount) from Transaction t where t.toAccount.id = a.id and t.timestamp >= :since), "
+        + "(select sum(t.amount) from Transaction t where t.fromAccount.id = a.id and t.timestamp >= :since)) "
+        + "from Account a where a.user.id = :userId")
+// Descending like the listings' default order; H2 does not read an index backwards
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_created_at", columnList = "created_at desc, id desc"),
+        @Index(name = "idx_accounts_user_created_at", columnList = "user_id, created_at desc, id desc"),
+        @Index(name = "idx_accounts_status_created_at", columnList = "status, created_at desc, id desc")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Account {
 
+    static final String SELECT_RESPONSE = "select new com.peracom.simple_banking.dtos.AccountResponse("
+            + "a.id, a.accountNumber, a.user.id, a.balance, a.status, a.createdAt) from Account a";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -37,7 +65,7 @@ public class Account {
     private User user;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -46,6 +74,9 @@ public class Account {
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     void onCreate() {
         this.createdAt = Instant.now();
@@ -0,0 +1,67 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One account's movements on one UTC day, recomputed by
+ * {@code DailyRollupWriter} shortly after every movement commits. Transfers
+ * count towards {@code moneyIn} or {@code moneyOut} only; deposits and
+ * withdrawals are also totalled on their own. The closing balance is the account's balance
+ * after the last movement of the day.
+ */
+@Entity
+@IdClass(AccountDailyRollup.Key.class)
+@Table(name = "account_daily_rollups", indexes = @Index(name = "idx_account_daily_rollups_account",
+        columnList = "account_id, activity_date", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountDailyRollup {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money moneyIn = Money.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money moneyOut = Money.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money deposits = Money.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money withdrawals = Money.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money closingBalance = Money.ZERO;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+    }
+}
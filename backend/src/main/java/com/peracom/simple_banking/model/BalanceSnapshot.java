@@ -0,0 +1,38 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An account's balance including every posting created up to {@code asOf}.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    private Long accountId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money balance;
+
+    @Column(nullable = false)
+    private Instant asOf;
+
+    @Version
+    private Long version;
+
+    public BalanceSnapshot(Long accountId) {
+        this.accountId = accountId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The highest journal sequence whose movement is in the {@code accounts} and
+ * {@code transactions} tables, written in the same transaction as the movement.
+ */
+@Entity
+@Table(name = "ledger_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long appliedSequence;
+}
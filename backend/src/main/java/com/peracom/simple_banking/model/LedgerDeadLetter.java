@@ -0,0 +1,55 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A journal entry the in-memory ledger applied but the database refused, kept
+ * for an operator to repair. The account balances written after it already
+ * include the movement, so until it is repaired the account's transactions do
+ * not sum to its balance.
+ */
+@Entity
+@Table(name = "ledger_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerDeadLetter {
+
+    @Id
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private long journalSequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    private Long fromAccountId;
+
+    private Long toAccountId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money amount;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Column(nullable = false, length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private Instant quarantinedAt;
+}
@@ -0,0 +1,58 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One side of a money movement in the event-sourced ledger. Every transaction
+ * appends a debit and a credit posting that sum to zero; rows are never
+ * updated or deleted.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_postings", indexes = {
+        @Index(name = "idx_ledger_postings_account_ts", columnList = "account_id, created_at"),
+        @Index(name = "idx_ledger_postings_transaction", columnList = "transaction_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerPosting {
+
+    /**
+     * Stands for the world outside the bank: the other side of every deposit
+     * and withdrawal.
+     */
+    public static final long EXTERNAL_ACCOUNT_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_postings_seq")
+    @SequenceGenerator(name = "ledger_postings_seq", sequenceName = "ledger_postings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Column(nullable = false, updatable = false)
+    private Long accountId;
+
+    /**
+     * Positive for a credit, negative for a debit.
+     */
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private Money amount;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
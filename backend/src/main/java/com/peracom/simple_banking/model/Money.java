@@ -0,0 +1,124 @@
+package com.peracom.simple_banking.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a {@code long} of minor units (cents), so that
+ * balance checks and arithmetic on the transaction path allocate at most the
+ * result instead of several {@link BigDecimal}s. Arithmetic is
+ * overflow-checked and throws {@link ArithmeticException}.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long FACTOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Converts a decimal amount with at most two decimal places.
+     *
+     * @throws ArithmeticException if the amount has more decimal places or does not fit
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code -12.5} or {@code 100.00} without
+     * going through {@link BigDecimal}; anything else (exponents, more than two
+     * decimal places) falls back to it.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if the amount has more decimal places or does not fit
+     */
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        int start = i;
+        long units = 0;
+        for (; i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+            if (units > (Long.MAX_VALUE - 9) / 10) {
+                return of(new BigDecimal(text.toString()));
+            }
+            units = units * 10 + (text.charAt(i) - '0');
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9' && fractionDigits < SCALE; i++) {
+                fraction = fraction * 10 + (text.charAt(i) - '0');
+                fractionDigits++;
+            }
+        }
+        if (i != length || (i == start && fractionDigits == 0)) {
+            return of(new BigDecimal(text.toString()));
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            fraction *= 10;
+        }
+        long minor = Math.addExact(Math.multiplyExact(units, FACTOR), fraction);
+        return ofMinor(negative ? -minor : minor);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Formats as a plain decimal with two places, e.g. {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        long abs = Math.abs(minorUnits);
+        long cents = abs % FACTOR;
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(abs / FACTOR).append('.');
+        if (cents < 10) {
+            text.append('0');
+        }
+        return text.append(cents).toString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.peracom.simple_banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The next unleased value of a named number sequence. Nodes lease blocks of
+ * values by advancing it under a row lock and hand them out from memory.
+ */
+@Entity
+@Table(name = "number_ranges")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NumberRange {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long nextValue;
+}
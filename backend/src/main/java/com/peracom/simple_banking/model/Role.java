@@ -0,0 +1,10 @@
+package com.peracom.simple_banking.model;
+
+/**
+ * What a user may do beyond acting on their own accounts. Registration always
+ * creates a {@link #USER}; operators grant {@link #ADMIN} in the database.
+ */
+public enum Role {
+    USER,
+    ADMIN
+}
@@ -1,32 +1,64 @@
 package com.peracom.simple_banking.model;
 
+import com.peracom.simple_banking.services.TransactionPostingListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
 import java.time.Instant;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A money movement. The read-side queries that select
+ * {@link com.peracom.simple_banking.dtos.TransactionResponse} directly are
+ * declared here as named queries, which Hibernate compiles once at startup;
+ * Spring Data re-renders {@code @Query} JPQL on every execution.
+ */
 @Entity
-@Table(name = "transactions")
+@EntityListeners(TransactionPostingListener.class)
+@NamedQuery(name = "Transaction.findResponseById", query = Transaction.SELECT_RESPONSE + " where t.id = :id")
+@NamedQuery(name = "Transaction.findDebitPage", query = Transaction.SELECT_RESPONSE
+        + " where t.fromAccount.id = :accountId" + Transaction.PAGE_FILTER)
+@NamedQuery(name = "Transaction.findCreditPage", query = Transaction.SELECT_RESPONSE
+        + " where t.toAccount.id = :accountId and (t.fromAccount is null or t.fromAccount.id <> :accountId)"
+        + Transaction.PAGE_FILTER)
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_account_ts", columnList = "from_account_id, timestamp, id"),
+        @Index(name = "idx_transactions_to_account_ts", columnList = "to_account_id, timestamp, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Transaction {
 
+    public static final int DESCRIPTION_LENGTH = 255;
+
+    static final String SELECT_RESPONSE = "select new com.peracom.simple_banking.dtos.TransactionResponse("
+            + "t.id, t.type, t.amount, f.id, f.accountNumber, a.id, a.accountNumber, t.timestamp, t.description) "
+            + "from Transaction t left join t.fromAccount f left join t.toAccount a";
+
+    static final String PAGE_FILTER = " and (:type is null or t.type = :type)"
+            + " and t.timestamp >= :fromTime and t.timestamp < :toTime"
+            + " and (t.timestamp < :cursorTime or (t.timestamp = :cursorTime and t.id < :cursorId))"
+            + " order by t.timestamp desc, t.id desc";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -34,7 +66,7 @@ public class Transaction {
     private TransactionType type;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id")
@@ -47,11 +79,13 @@ public class Transaction {
     @Column(nullable = false, updatable = false)
     private Instant timestamp;
 
-    @Column
+    @Column(length = DESCRIPTION_LENGTH)
     private String description;
 
     @PrePersist
     void onCreate() {
-        this.timestamp = Instant.now();
+        if (this.timestamp == null) {
+            this.timestamp = Instant.now();
+        }
     }
 }
@@ -0,0 +1,34 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.dtos.DailyActivity;
+import com.peracom.simple_banking.dtos.DailyTotals;
+import com.peracom.simple_banking.model.AccountDailyRollup;
+import com.peracom.simple_banking.model.Money;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountDailyRollupRepository extends JpaRepository<AccountDailyRollup, AccountDailyRollup.Key> {
+
+    @Query("select new com.peracom.simple_banking.dtos.DailyActivity(r.day, r.transactionCount, r.moneyIn, "
+            + "r.moneyOut, r.deposits, r.withdrawals, r.closingBalance) from AccountDailyRollup r "
+            + "where r.accountId = :accountId and r.day between :from and :to order by r.day")
+    List<DailyActivity> findDays(
+            @Param("accountId") Long accountId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * @return the closing balance of the account's last day with movements
+     *         before {@code day}, if any
+     */
+    @Query("select r.closingBalance from AccountDailyRollup r where r.accountId = :accountId and r.day < :day "
+            + "order by r.day desc limit 1")
+    Optional<Money> findClosingBalanceBefore(@Param("accountId") Long accountId, @Param("day") LocalDate day);
+
+    @Query("select new com.peracom.simple_banking.dtos.DailyTotals(r.day, count(r), sum(r.deposits), "
+            + "sum(r.withdrawals), sum(r.moneyIn)) from AccountDailyRollup r "
+            + "where r.day between :from and :to group by r.day order by r.day")
+    List<DailyTotals> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
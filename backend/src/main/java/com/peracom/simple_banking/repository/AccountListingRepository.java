@@ -0,0 +1,20 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+
+public interface AccountListingRepository {
+
+    /**
+     * Selects one page of accounts in (createdAt, id) order.
+     *
+     * @param afterCreatedAt the creation time of the last account of the
+     *                       previous page, or null for the first page
+     * @param afterId        the id of the last account of the previous page
+     */
+    List<AccountResponse> findAccountPage(AccountFilter filter, Sort.Direction direction,
+            Instant afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,31 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+class AccountListingRepositoryImpl implements AccountListingRepository {
+
+    private static final String SELECT_RESPONSE = "select new com.peracom.simple_banking.dtos.AccountResponse("
+            + "e.id, e.accountNumber, e.user.id, e.balance, e.status, e.createdAt) from Account e";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountResponse> findAccountPage(AccountFilter filter, Sort.Direction direction,
+            Instant afterCreatedAt, Long afterId, int limit) {
+        return new KeysetQuery(SELECT_RESPONSE)
+                .where("e.user.id = :userId", "userId", filter.getUserId())
+                .where("e.status = :status", "status", filter.getStatus())
+                .where("e.createdAt >= :createdFrom", "createdFrom", filter.getCreatedFrom())
+                .where("e.createdAt < :createdTo", "createdTo", filter.getCreatedTo())
+                .page(entityManager, AccountResponse.class, direction, afterCreatedAt, afterId, limit);
+    }
+}
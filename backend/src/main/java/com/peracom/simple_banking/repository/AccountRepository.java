@@ -1,11 +1,58 @@
 package com.peracom.simple_banking.repository;
 
+import com.peracom.simple_banking.dtos.AccountActivity;
+import com.peracom.simple_banking.dtos.AccountResponse;
 import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountListingRepository {
     List<Account> findByUser_Id(Long userId);
 
-    boolean existsByAccountNumber(String accountNumber);
+    // Named queries on Account
+    Optional<AccountResponse> findResponseById(@Param("id") Long id);
+
+    List<AccountResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Aggregates the activity of each of a user's accounts in one query, with
+     * the inflow and outflow summed from {@code since}.
+     */
+    List<AccountActivity> findActivityByUserId(@Param("userId") Long userId, @Param("since") Instant since);
+
+    @Query("select a.user.id from Account a where a.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("select a.accountNumber from Account a where a.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id as accountId, a.balance as balance from Account a")
+    List<AccountBalance> findAllBalances();
+
+    @Modifying
+    @Query("update Account a set a.balance = :balance where a.id = :id")
+    void updateBalance(@Param("id") Long id, @Param("balance") Money balance);
+
+    interface AccountBalance {
+        Long getAccountId();
+
+        Money getBalance();
+    }
 }
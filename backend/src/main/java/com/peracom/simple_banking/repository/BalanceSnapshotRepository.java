@@ -0,0 +1,7 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+}
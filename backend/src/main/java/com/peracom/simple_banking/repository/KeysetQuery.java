@@ -0,0 +1,59 @@
+package com.peracom.simple_banking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Builds a listing query ordered by the {@code createdAt} and {@code id} of
+ * the entity aliased {@code e}, with a condition only for each filter that is
+ * set. Every combination of filters is then its own query string, which
+ * Hibernate translates once and caches, and which the database can serve from
+ * the index led by the filtered columns instead of testing null parameters
+ * row by row.
+ */
+final class KeysetQuery {
+
+    private final StringBuilder jpql;
+    private final Map<String, Object> parameters = new HashMap<>();
+    private String conjunction = " where ";
+
+    KeysetQuery(String select) {
+        this.jpql = new StringBuilder(select);
+    }
+
+    KeysetQuery where(String condition, String parameter, Object value) {
+        if (value != null) {
+            jpql.append(conjunction).append(condition);
+            conjunction = " and ";
+            parameters.put(parameter, value);
+        }
+        return this;
+    }
+
+    /**
+     * @param afterCreatedAt the creation time of the last row of the previous
+     *                       page, or null for the first page
+     * @param afterId        the id of the last row of the previous page
+     */
+    <T> List<T> page(EntityManager entityManager, Class<T> type, Sort.Direction direction,
+            Instant afterCreatedAt, Long afterId, int limit) {
+        String beyond = direction.isAscending() ? ">" : "<";
+        if (afterCreatedAt != null) {
+            // The first comparison alone bounds the index range; the second skips the rows already returned
+            where("e.createdAt " + beyond + "= :afterCreatedAt and (e.createdAt " + beyond
+                    + " :afterCreatedAt or e.id " + beyond + " :afterId)", "afterCreatedAt", afterCreatedAt);
+            parameters.put("afterId", afterId);
+        }
+        String order = direction.isAscending() ? " asc" : " desc";
+        jpql.append(" order by e.createdAt").append(order).append(", e.id").append(order);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
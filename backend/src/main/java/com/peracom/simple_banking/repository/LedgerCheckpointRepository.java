@@ -0,0 +1,7 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, String> {
+}
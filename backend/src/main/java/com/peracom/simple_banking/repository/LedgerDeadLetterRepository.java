@@ -0,0 +1,7 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.model.LedgerDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerDeadLetterRepository extends JpaRepository<LedgerDeadLetter, Long> {
+}
@@ -0,0 +1,61 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.model.LedgerPosting;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long> {
+
+    /**
+     * Returns the current balance of each account: its latest snapshot, or the
+     * opening balance on the account row when it has none, plus the postings
+     * created since. Each account costs one index range scan.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT a.id AS accountId,
+                   COALESCE(s.balance, a.balance) + COALESCE(SUM(p.amount), 0) AS balance
+            FROM accounts a
+            LEFT JOIN balance_snapshots s ON s.account_id = a.id
+            LEFT JOIN ledger_postings p ON p.account_id = a.id
+                AND (s.as_of IS NULL OR p.created_at > s.as_of)
+            WHERE a.id IN (:ids)
+            GROUP BY a.id, a.balance, s.balance
+            """)
+    List<DerivedBalance> findBalances(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns, for every account with postings not yet in its snapshot and
+     * created no later than {@code asOf}, the balance they apply to and their sum.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT p.account_id AS accountId,
+                   COALESCE(s.balance, a.balance) AS base,
+                   SUM(p.amount) AS total
+            FROM ledger_postings p
+            JOIN accounts a ON a.id = p.account_id
+            LEFT JOIN balance_snapshots s ON s.account_id = p.account_id
+            WHERE p.created_at <= :asOf
+              AND (s.as_of IS NULL OR p.created_at > s.as_of)
+            GROUP BY p.account_id, a.balance, s.balance
+            """)
+    List<SnapshotDelta> findUnsnapshotted(@Param("asOf") Instant asOf);
+
+    interface DerivedBalance {
+        Long getAccountId();
+
+        BigDecimal getBalance();
+    }
+
+    interface SnapshotDelta {
+        Long getAccountId();
+
+        BigDecimal getBase();
+
+        BigDecimal getTotal();
+    }
+}
@@ -0,0 +1,16 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.model.NumberRange;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NumberRangeRepository extends JpaRepository<NumberRange, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from NumberRange r where r.name = :name")
+    Optional<NumberRange> findByNameForUpdate(@Param("name") String name);
+}
@@ -1,9 +1,100 @@
 package com.peracom.simple_banking.repository;
 
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.Money;
 import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByFromAccountIdOrToAccountId(Long fromAccountId, Long toAccountId);
+    // Named query on Transaction
+    Optional<TransactionResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Returns the next page of an account's debits, newest first, strictly
+     * after the {@code (timestamp, id)} cursor. Debits and credits are read by
+     * separate index range scans and merged by the caller, instead of one OR
+     * predicate that neither index can serve. Declared as a named query on
+     * {@link Transaction}. The type filter is a nullable scalar rather than a
+     * list, since list parameters make Hibernate translate the query again on
+     * every execution.
+     */
+    List<TransactionResponse> findDebitPage(
+            @Param("accountId") Long accountId,
+            @Param("type") TransactionType type,
+            @Param("fromTime") Instant fromTime,
+            @Param("toTime") Instant toTime,
+            @Param("cursorTime") Instant cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    /**
+     * Like {@link #findDebitPage} for credits, leaving out transfers from the
+     * account to itself, which are already among its debits.
+     */
+    List<TransactionResponse> findCreditPage(
+            @Param("accountId") Long accountId,
+            @Param("type") TransactionType type,
+            @Param("fromTime") Instant fromTime,
+            @Param("toTime") Instant toTime,
+            @Param("cursorTime") Instant cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    @Query("select t.toAccount.id as accountId, sum(t.amount) as total from Transaction t "
+            + "where t.toAccount is not null group by t.toAccount.id")
+    List<AccountTotal> sumCreditsByAccount();
+
+    @Query("select t.fromAccount.id as accountId, sum(t.amount) as total from Transaction t "
+            + "where t.fromAccount is not null group by t.fromAccount.id")
+    List<AccountTotal> sumDebitsByAccount();
+
+    /**
+     * Streams an account's full history, oldest first, as lightweight rows that
+     * are never attached to the persistence context. Must be consumed inside a
+     * transaction and closed. On MySQL the fetch size only streams with
+     * {@code useCursorFetch=true} on the connection URL, as in the mysql profile.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t.id as id, t.type as type, t.amount as amount, t.fromAccount.id as fromAccountId, "
+            + "t.toAccount.id as toAccountId, t.timestamp as timestamp, t.description as description "
+            + "from Transaction t where t.fromAccount.id = :accountId or t.toAccount.id = :accountId "
+            + "order by t.timestamp, t.id")
+    Stream<StatementLine> streamStatement(@Param("accountId") Long accountId);
+
+    interface StatementLine {
+        Long getId();
+
+        TransactionType getType();
+
+        Money getAmount();
+
+        Long getFromAccountId();
+
+        Long getToAccountId();
+
+        Instant getTimestamp();
+
+        String getDescription();
+    }
+
+    interface AccountTotal {
+        Long getAccountId();
+
+        BigDecimal getTotal();
+    }
 }
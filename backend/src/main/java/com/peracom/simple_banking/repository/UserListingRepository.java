@@ -0,0 +1,20 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.dtos.UserFilter;
+import com.peracom.simple_banking.dtos.UserResponse;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+
+public interface UserListingRepository {
+
+    /**
+     * Selects one page of users in (createdAt, id) order.
+     *
+     * @param afterCreatedAt the creation time of the last user of the previous
+     *                       page, or null for the first page
+     * @param afterId        the id of the last user of the previous page
+     */
+    List<UserResponse> findUserPage(UserFilter filter, Sort.Direction direction,
+            Instant afterCreatedAt, Long afterId, int limit);
+}
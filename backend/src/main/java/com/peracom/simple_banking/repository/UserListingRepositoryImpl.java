@@ -0,0 +1,29 @@
+package com.peracom.simple_banking.repository;
+
+import com.peracom.simple_banking.dtos.UserFilter;
+import com.peracom.simple_banking.dtos.UserResponse;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+class UserListingRepositoryImpl implements UserListingRepository {
+
+    private static final String SELECT_RESPONSE = "select new com.peracom.simple_banking.dtos.UserResponse("
+            + "e.id, e.name, e.email, e.createdAt) from User e";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> findUserPage(UserFilter filter, Sort.Direction direction,
+            Instant afterCreatedAt, Long afterId, int limit) {
+        return new KeysetQuery(SELECT_RESPONSE)
+                .where("e.createdAt >= :createdFrom", "createdFrom", filter.getCreatedFrom())
+                .where("e.createdAt < :createdTo", "createdTo", filter.getCreatedTo())
+                .page(entityManager, UserResponse.class, direction, afterCreatedAt, afterId, limit);
+    }
+}
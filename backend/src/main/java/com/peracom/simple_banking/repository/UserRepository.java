@@ -1,9 +1,44 @@
 package com.peracom.simple_banking.repository;
 
+import com.peracom.simple_banking.config.CacheConfig;
+import com.peracom.simple_banking.dtos.UserResponse;
+import com.peracom.simple_banking.model.Role;
 import com.peracom.simple_banking.model.User;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserListingRepository {
     Optional<User> findByEmail(String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Cached as an immutable response, never as the entity, so no caller can
+     * change what the next one reads.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    @Query("select new com.peracom.simple_banking.dtos.UserResponse(u.id, u.name, u.email, u.createdAt) "
+            + "from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select u.role from User u where u.id = :id")
+    Optional<Role> findRoleById(@Param("id") Long id);
+
+    @Override
+    @CacheEvict(CacheConfig.USERS)
+    void deleteById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :hash where u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash);
 }
@@ -0,0 +1,11 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A money movement accepted for asynchronous processing: the id its status can
+ * be polled with, and a future completed with its outcome.
+ */
+public record AcceptedMovement(String id, CompletableFuture<TransactionResponse> result) {
+}
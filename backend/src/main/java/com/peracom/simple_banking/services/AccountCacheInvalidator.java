@@ -0,0 +1,37 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached account reads once the change that made them stale has
+ * committed, so a rolled-back or retried movement never evicts early.
+ *
+ * <p>A read that missed may have loaded the old row just before the commit.
+ * Account reads are cached with {@code sync}, so the load runs as an atomic
+ * Caffeine compute: an eviction arriving while it runs waits for it and then
+ * discards its value, and a stale value is never put after the eviction.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        evict(CacheConfig.ACCOUNTS, event.accountId());
+        evict(CacheConfig.ACCOUNTS_BY_USER, event.userId());
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
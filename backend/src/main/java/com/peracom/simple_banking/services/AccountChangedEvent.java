@@ -0,0 +1,14 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.Account;
+
+/**
+ * Published inside the transaction that creates an account or changes its
+ * balance or status.
+ */
+public record AccountChangedEvent(Long accountId, Long userId) {
+
+    public static AccountChangedEvent of(Account account) {
+        return new AccountChangedEvent(account.getId(), account.getUser().getId());
+    }
+}
@@ -0,0 +1,150 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.NumberRange;
+import com.peracom.simple_banking.repository.NumberRangeRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out unique account numbers of the form {@code ACCT-} followed by a
+ * twelve-digit sequence value and a Luhn check digit. Values come from blocks
+ * of {@code banking.account-number.block-size} leased from the
+ * {@code number_ranges} table, so numbering costs one row update per block
+ * rather than a query per account, and within a block a number is a single
+ * atomic increment. Values left in a block at shutdown are skipped.
+ *
+ * <p>Leasing runs in its own transaction and needs a connection of its own,
+ * so call {@link #next()} before opening the transaction that saves the
+ * account.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberGenerator {
+
+    static final String PREFIX = "ACCT-";
+    private static final String RANGE = "account_number";
+    private static final int DIGITS = 12;
+    private static final long MAX_VALUE = 999_999_999_999L;
+
+    private final NumberRangeRepository numberRangeRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${banking.account-number.block-size:1000}")
+    private int blockSize;
+
+    private TransactionTemplate leaseTransaction;
+    private volatile Block current = new Block(0, 0);
+
+    @PostConstruct
+    void init() {
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String next() {
+        return format(nextValue());
+    }
+
+    /**
+     * Tells whether an account number is well formed and its check digit matches.
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != PREFIX.length() + DIGITS + 1
+                || !accountNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + DIGITS; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return accountNumber.charAt(accountNumber.length() - 1) == (char) ('0' + checkDigit(value));
+    }
+
+    private long nextValue() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            // Only the first thread to find the block spent leases the next one
+            synchronized (this) {
+                if (current == block) {
+                    current = lease();
+                }
+            }
+        }
+    }
+
+    private Block lease() {
+        for (;;) {
+            try {
+                Block block = leaseTransaction.execute(status -> {
+                    NumberRange range = numberRangeRepository.findByNameForUpdate(RANGE)
+                            .orElseGet(() -> new NumberRange(RANGE, 1));
+                    long start = range.getNextValue();
+                    if (start + blockSize - 1 > MAX_VALUE) {
+                        throw new IllegalStateException("Account numbers are exhausted.");
+                    }
+                    range.setNextValue(start + blockSize);
+                    numberRangeRepository.save(range);
+                    return new Block(start, start + blockSize);
+                });
+                return block;
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the range row first; lock it and lease from there
+            }
+        }
+    }
+
+    private static String format(long value) {
+        StringBuilder number = new StringBuilder(PREFIX.length() + DIGITS + 1).append(PREFIX);
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).append(checkDigit(value)).toString();
+    }
+
+    /**
+     * Luhn check digit over the twelve zero-padded digits of the value.
+     */
+    private static int checkDigit(long value) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = 0; i < DIGITS; i++) {
+            int digit = (int) (value % 10);
+            value /= 10;
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
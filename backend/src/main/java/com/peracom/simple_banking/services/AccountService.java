@@ -1,16 +1,33 @@
 package com.peracom.simple_banking.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.config.CacheConfig;
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.CursorPage;
+import com.peracom.simple_banking.dtos.UserResponse;
+import com.peracom.simple_banking.ledger.EventSourcedLedger;
 import com.peracom.simple_banking.model.Account;
 import com.peracom.simple_banking.model.AccountStatus;
-import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
 import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
 import com.peracom.simple_banking.repository.UserRepository;
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -19,54 +36,106 @@ public class AccountService implements IAccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<EventSourcedLedger> eventSourcedLedger;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
-    public Account createAccount(Account account) {
-        if (account == null || account.getUser() == null || account.getUser().getId() == null) {
+    public Account createAccount(CreateAccountRequest request) {
+        if (request == null || request.getUserId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User id is required to create an account.");
         }
 
-        User user = userRepository
-                .findById(account.getUser().getId())
-                .orElseThrow(
-                        () -> new ResponseStatusException(
-                                HttpStatus.NOT_FOUND, "User not found."));
-
-        account.setUser(user);
-        account.setAccountNumber(generateAccountNumber());
-
-        if (account.getBalance() == null) {
-            account.setBalance(BigDecimal.ZERO);
-        }
-        if (account.getBalance().compareTo(BigDecimal.ZERO) < 0) {
+        Account account = new Account();
+        account.setBalance(request.getBalance() != null ? request.getBalance() : Money.ZERO);
+        if (account.getBalance().isNegative()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Initial balance cannot be negative.");
         }
+        account.setStatus(AccountStatus.ACTIVE);
 
-        if (account.getStatus() == null) {
-            account.setStatus(AccountStatus.ACTIVE);
-        }
+        // Numbered before the transaction opens, since leasing a block of numbers takes a connection of its own
+        account.setAccountNumber(accountNumberGenerator.next());
 
-        return accountRepository.save(account);
+        return transactionTemplate.execute(status -> saveNewAccount(request.getUserId(), account));
     }
 
-    public Account getAccount(Long id) {
-        return accountRepository
-                .findById(id)
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, sync = true)
+    public AccountResponse getAccount(Long id) {
+        AccountResponse account = accountRepository
+                .findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found."));
+        return withCurrentBalances(List.of(account)).get(0);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS_BY_USER, sync = true)
+    public List<AccountResponse> getAccountsByUser(Long userId) {
+        return withCurrentBalances(accountRepository.findResponsesByUserId(userId));
+    }
+
+    public CursorPage<AccountResponse> getAccountPage(AccountFilter filter, Sort.Direction direction, String cursor,
+            int limit) {
+        KeysetCursor.checkLimit(limit);
+        List<AccountResponse> accounts = findAccountPage(filter, direction, KeysetCursor.decode(cursor), limit);
+        String nextCursor = null;
+        if (accounts.size() == limit) {
+            nextCursor = position(accounts.get(accounts.size() - 1)).encode();
+        }
+        return new CursorPage<>(accounts, nextCursor);
     }
 
-    public List<Account> getAccountsByUser(Long userId) {
-        return accountRepository.findByUser_Id(userId);
+    public void exportAccounts(AccountFilter filter, OutputStream out) throws IOException {
+        KeysetExport.write(objectMapper, out,
+                (after, limit) -> findAccountPage(filter, Sort.Direction.DESC, after, limit), AccountService::position);
     }
 
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    private List<AccountResponse> findAccountPage(AccountFilter filter, Sort.Direction direction, KeysetCursor after,
+            int limit) {
+        List<AccountResponse> accounts = after == null
+                ? accountRepository.findAccountPage(filter, direction, null, null, limit)
+                : accountRepository.findAccountPage(filter, direction, after.time(), after.id(), limit);
+        return withCurrentBalances(accounts);
     }
 
-    private String generateAccountNumber() {
-        String accountNumber;
-        do {
-            accountNumber = "ACCT-" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
-        } while (accountRepository.existsByAccountNumber(accountNumber));
-        return accountNumber;
+    private static KeysetCursor position(AccountResponse account) {
+        return new KeysetCursor(account.getCreatedAt(), account.getId());
+    }
+
+    /**
+     * With the event-sourced ledger the balance column only holds the last
+     * snapshot, so reads replace it with the derived balance.
+     */
+    private List<AccountResponse> withCurrentBalances(List<AccountResponse> accounts) {
+        EventSourcedLedger ledger = eventSourcedLedger.getIfAvailable();
+        if (ledger == null) {
+            return accounts;
+        }
+        Map<Long, Money> current = ledger.balancesOf(accounts.stream().map(AccountResponse::getId).toList());
+        return accounts.stream().map(account -> account.withBalance(current.get(account.getId()))).toList();
+    }
+
+    private Account saveNewAccount(Long userId, Account account) {
+        UserResponse owner = userRepository
+                .findResponseById(userId)
+                .orElseThrow(
+                        () -> new ResponseStatusException(
+                                HttpStatus.NOT_FOUND, "User not found."));
+        account.setUser(userRepository.getReferenceById(owner.getId()));
+        Account saved = accountRepository.save(account);
+
+        // Record the opening balance so the transactions table fully explains every balance
+        if (saved.getBalance().isPositive()) {
+            Transaction opening = new Transaction();
+            opening.setType(TransactionType.DEPOSIT);
+            opening.setAmount(saved.getBalance());
+            opening.setToAccount(saved);
+            opening.setDescription("Opening balance");
+            transactionRepository.save(opening);
+        }
+
+        eventPublisher.publishEvent(AccountChangedEvent.of(saved));
+
+        return saved;
     }
 }
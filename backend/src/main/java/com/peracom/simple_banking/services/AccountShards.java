@@ -0,0 +1,122 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.metrics.StatementCounter;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Single-writer executors for {@link LockMode#SHARDED}. Every account id
+ * hashes onto one of {@code banking.locking.shards} single-threaded shards, so
+ * all updates to an account run one after another without waiting on row
+ * locks. Work spanning several shards takes them in ascending order, each
+ * shard's thread waiting on the next, and runs on the last; since no shard
+ * ever waits on a lower one, two transfers cannot deadlock.
+ *
+ * <p>The shard threads are started the first time work is dispatched.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountShards {
+
+    private static final ThreadLocal<Boolean> ON_SHARD = new ThreadLocal<>();
+
+    private final ThreadFactory backgroundThreadFactory;
+
+    @Value("${banking.locking.shards:0}")
+    private int shardCount;
+
+    @Value("${banking.locking.shard-queue-capacity:10000}")
+    private int queueCapacity;
+
+    private volatile ThreadPoolExecutor[] shards;
+
+    @PreDestroy
+    void stop() {
+        if (shards != null) {
+            for (ThreadPoolExecutor shard : shards) {
+                shard.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Runs the work on the shards of the given accounts and waits for it.
+     * Exceptions thrown by the work are rethrown unchanged. The work must not
+     * dispatch to the shards itself, and only sees the caller's thread-bound
+     * state, such as a claimed idempotency key, if it was captured beforehand.
+     */
+    public <T> T execute(Collection<Long> accountIds, Supplier<T> work) {
+        if (ON_SHARD.get() != null) {
+            throw new IllegalStateException("Work running on an account shard cannot dispatch to the shards.");
+        }
+        ThreadPoolExecutor[] executors = shards();
+        int[] indexes = accountIds.stream()
+                .mapToInt(id -> shardIndex(id, executors.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        if (indexes.length == 0) {
+            return work.get();
+        }
+        return runOn(executors, indexes, 0, work);
+    }
+
+    private <T> T runOn(ThreadPoolExecutor[] executors, int[] indexes, int position, Supplier<T> work) {
+        Supplier<T> step = position == indexes.length - 1
+                ? work
+                : () -> runOn(executors, indexes, position + 1, work);
+        try {
+            return StatementCounter.supplyAsync(step, executors[indexes[position]]).join();
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.TOO_MANY_REQUESTS, "Too many money movements queued, please retry.", e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private ThreadPoolExecutor[] shards() {
+        ThreadPoolExecutor[] current = shards;
+        if (current == null) {
+            synchronized (this) {
+                current = shards;
+                if (current == null) {
+                    current = start();
+                    shards = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private ThreadPoolExecutor[] start() {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = task -> backgroundThreadFactory.newThread(() -> {
+            ON_SHARD.set(Boolean.TRUE);
+            task.run();
+        });
+        ThreadPoolExecutor[] executors = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            executors[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        }
+        return executors;
+    }
+
+    private static int shardIndex(Long accountId, int shardCount) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (h ^ (h >>> 32)), shardCount);
+    }
+}
@@ -0,0 +1,154 @@
+package com.peracom.simple_banking.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.MovementStatus;
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Accepts money movements into a bounded queue served by a fixed pool of
+ * movement threads, so a burst waits here instead of holding servlet threads
+ * on database latency, and turns a full queue into 429s. The status of every
+ * accepted movement is kept for {@code banking.async.status-ttl} for clients
+ * that poll instead of waiting.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransactionService implements IAsyncTransactionService {
+
+    private final ITransactionService transactionService;
+    private final IIdempotencyService idempotencyService;
+    private final ThreadFactory backgroundThreadFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${banking.async.threads:8}")
+    private int threads;
+
+    @Value("${banking.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${banking.async.status-ttl:PT15M}")
+    private Duration statusTtl;
+
+    @Value("${banking.async.status-cache-size:100000}")
+    private long statusCacheSize;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, MovementStatus> statuses;
+    private Timer queueWait;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), backgroundThreadFactory, new ThreadPoolExecutor.AbortPolicy());
+        statuses = Caffeine.newBuilder()
+                .maximumSize(statusCacheSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+
+        queueWait = Timer.builder("banking.async.queue.wait")
+                .description("Time an accepted money movement waits for a movement thread")
+                .register(meterRegistry);
+        meterRegistry.gauge("banking.async.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Accepted movements were promised to the client, so let the queue drain
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public AcceptedMovement deposit(String idempotencyKey, DepositRequest request) {
+        return submit("deposit", request.getAccountId(), idempotencyKey, request,
+                () -> transactionService.deposit(request));
+    }
+
+    public AcceptedMovement withdraw(String idempotencyKey, WithdrawRequest request) {
+        return submit("withdraw", request.getAccountId(), idempotencyKey, request,
+                () -> transactionService.withdraw(request));
+    }
+
+    public AcceptedMovement transfer(String idempotencyKey, TransferRequest request) {
+        return submit("transfer", request.getFromAccountId(), idempotencyKey, request,
+                () -> transactionService.transfer(request));
+    }
+
+    public MovementStatus getStatus(String id) {
+        MovementStatus status = statuses.getIfPresent(id);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Movement not found.");
+        }
+        return status;
+    }
+
+    private AcceptedMovement submit(String operation, Long accountId, String idempotencyKey, Object request,
+            Supplier<Transaction> movement) {
+        String id = UUID.randomUUID().toString();
+        Instant acceptedAt = Instant.now();
+        statuses.put(id, new MovementStatus(
+                id, operation, accountId, MovementStatus.State.PENDING, null, null, null, acceptedAt, null));
+
+        long queuedAt = System.nanoTime();
+        CompletableFuture<TransactionResponse> result;
+        try {
+            result = StatementCounter.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return idempotencyService.execute(idempotencyKey, operation, request, movement);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            statuses.invalidate(id);
+            throw new ResponseStatusException(
+                    HttpStatus.TOO_MANY_REQUESTS, "Too many money movements queued, please retry.", e);
+        }
+
+        // Statuses are replaced rather than mutated, so a poll never sees a half-written one. The caller's
+        // future completes only after the status is updated.
+        return new AcceptedMovement(id, result.whenComplete((transaction, error) -> statuses.put(id, error == null
+                ? new MovementStatus(id, operation, accountId, MovementStatus.State.COMPLETED,
+                        transaction, null, null, acceptedAt, Instant.now())
+                : failed(id, operation, accountId, acceptedAt, error))));
+    }
+
+    private static MovementStatus failed(
+            String id, String operation, Long accountId, Instant acceptedAt, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        String message = "The movement failed.";
+        if (cause instanceof ResponseStatusException e) {
+            status = e.getStatusCode().value();
+            message = e.getReason();
+        } else {
+            log.error("Asynchronous {} {} failed", operation, id, cause);
+        }
+        return new MovementStatus(id, operation, accountId, MovementStatus.State.FAILED, null, status, message,
+                acceptedAt, Instant.now());
+    }
+}
@@ -0,0 +1,65 @@
+package com.peracom.simple_banking.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peracom.simple_banking.model.Role;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+@RequiredArgsConstructor
+public class AuthorizationService implements IAuthorizationService {
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+
+    @Value("${banking.auth.owner-cache-size:100000}")
+    private long ownerCacheSize;
+
+    private Cache<Long, Long> owners;
+
+    @PostConstruct
+    void init() {
+        owners = Caffeine.newBuilder().maximumSize(ownerCacheSize).build();
+    }
+
+    public void checkUser(TokenPrincipal principal, Long userId) {
+        if (principal == null || userId == null || !userId.equals(principal.userId())) {
+            throw forbidden();
+        }
+    }
+
+    public void checkAccountOwner(TokenPrincipal principal, Long accountId) {
+        if (principal == null) {
+            throw forbidden();
+        }
+        if (accountId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Account id is required.");
+        }
+        Long ownerId = owners.getIfPresent(accountId);
+        if (ownerId == null) {
+            ownerId = accountRepository.findUserIdById(accountId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found."));
+            owners.put(accountId, ownerId);
+        }
+        if (!ownerId.equals(principal.userId())) {
+            throw forbidden();
+        }
+    }
+
+    public void checkAdmin(TokenPrincipal principal) {
+        if (principal == null || userRepository.findRoleById(principal.userId()).orElse(null) != Role.ADMIN) {
+            throw forbidden();
+        }
+    }
+
+    private static ResponseStatusException forbidden() {
+        return new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to act on this resource.");
+    }
+}
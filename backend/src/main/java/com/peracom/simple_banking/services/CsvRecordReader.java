@@ -0,0 +1,90 @@
+package com.peracom.simple_banking.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records one at a time: comma-separated fields, optionally in
+ * double quotes, with {@code ""} for a quote and line breaks allowed inside
+ * quotes. Blank lines are skipped. Fields are capped in length so that an
+ * unbalanced quote cannot pull the rest of the input into memory.
+ */
+final class CsvRecordReader {
+
+    static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int pending = NONE;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the fields of the next record, or {@code null} at the end of the input
+     * @throws IOException if reading fails, a field is too long or a quote is never closed
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int c;
+        while ((c = read()) != -1) {
+            if (inQuotes) {
+                if (c != '"') {
+                    append(c);
+                } else if ((c = read()) == '"') {
+                    field.append('"');
+                } else {
+                    inQuotes = false;
+                    pending = c;
+                }
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n') {
+                if (fields.isEmpty() && field.length() == 0 && !quoted) {
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IOException("Quoted field is never closed.");
+        }
+        if (fields.isEmpty() && field.length() == 0 && !quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(int c) throws IOException {
+        if (field.length() == MAX_FIELD_LENGTH) {
+            throw new IOException("Field is longer than " + MAX_FIELD_LENGTH + " characters.");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,235 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.AccountActivityReport;
+import com.peracom.simple_banking.dtos.BackfillResult;
+import com.peracom.simple_banking.dtos.DailyActivity;
+import com.peracom.simple_banking.dtos.DailyTotals;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.repository.AccountDailyRollupRepository;
+import com.peracom.simple_banking.repository.AccountRepository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Answers reports from the daily rollups kept by {@link DailyRollupWriter},
+ * and rebuilds them from the transaction history on demand.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyRollupService implements IDailyRollupService {
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    // Locks the chunk's accounts, so that no movement on them commits while it is rebuilt
+    private static final String LOCK_ACCOUNTS =
+            "SELECT id FROM accounts WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE";
+
+    private static final String DELETE_ROLLUPS = "DELETE FROM account_daily_rollups WHERE account_id BETWEEN ? AND ?";
+
+    // Both sides of every movement on the chunk's accounts, in the order they were posted
+    private static final String MOVEMENTS = """
+            SELECT account_id, timestamp, type, amount, credit FROM (
+                SELECT from_account_id AS account_id, timestamp, id, type, amount, 0 AS credit
+                FROM transactions WHERE from_account_id BETWEEN ? AND ?
+                UNION ALL
+                SELECT to_account_id, timestamp, id, type, amount, 1
+                FROM transactions WHERE to_account_id BETWEEN ? AND ?
+            ) m
+            ORDER BY account_id, timestamp, id
+            """;
+
+    private static final String INSERT_ROLLUP = """
+            INSERT INTO account_daily_rollups (account_id, activity_date, transaction_count,
+                                               money_in, money_out, deposits, withdrawals, closing_balance)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final AccountDailyRollupRepository rollupRepository;
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${banking.rollups.backfill-chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${banking.rollups.backfill-threads:0}")
+    private int threads;
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    public AccountActivityReport getAccountReport(Long accountId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found.");
+        }
+
+        Money opening = rollupRepository.findClosingBalanceBefore(accountId, from).orElse(Money.ZERO);
+        Money closing = opening;
+        long count = 0;
+        Money in = Money.ZERO;
+        Money out = Money.ZERO;
+        Money deposits = Money.ZERO;
+        Money withdrawals = Money.ZERO;
+        List<DailyActivity> days = rollupRepository.findDays(accountId, from, to);
+        for (DailyActivity day : days) {
+            count += day.getTransactionCount();
+            in = in.plus(day.getMoneyIn());
+            out = out.plus(day.getMoneyOut());
+            deposits = deposits.plus(day.getDeposits());
+            withdrawals = withdrawals.plus(day.getWithdrawals());
+            closing = day.getClosingBalance();
+        }
+        return new AccountActivityReport(accountId, from, to, opening, closing, count, in, out, deposits,
+                withdrawals, days);
+    }
+
+    public List<DailyTotals> getDailyTotals(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.findDailyTotals(from, to);
+    }
+
+    public BackfillResult backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A backfill is already running.");
+        }
+        long start = System.nanoTime();
+        try {
+            Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM accounts", Long.class);
+            Long last = jdbcTemplate.queryForObject("SELECT MAX(id) FROM accounts", Long.class);
+            long accounts = 0;
+            long rollups = 0;
+            long chunks = 0;
+            if (first != null) {
+                chunks = (last - first) / chunkSize + 1;
+                int poolSize = (int) Math.min(chunks,
+                        threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+                CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rollup-backfill-");
+                threadFactory.setDaemon(true);
+                ExecutorService executor = Executors.newFixedThreadPool(poolSize, threadFactory);
+                try {
+                    List<Future<long[]>> results = new ArrayList<>();
+                    for (long low = first; low <= last; low += chunkSize) {
+                        long high = Math.min(low + chunkSize - 1, last);
+                        long chunkStart = low;
+                        results.add(executor.submit(() -> rebuildWithRetry(chunkStart, high)));
+                    }
+                    for (Future<long[]> result : results) {
+                        long[] counts = result.get();
+                        accounts += counts[0];
+                        rollups += counts[1];
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebuilt {} daily rollups of {} accounts in {} chunks in {} ms", rollups, accounts, chunks,
+                    elapsedMs);
+            return new BackfillResult(chunks, accounts, rollups, elapsedMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted during backfill.", e);
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Backfill failed.", e.getCause());
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    private long[] rebuildWithRetry(long low, long high) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> rebuild(low, high));
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Retrying rollup backfill of accounts {}..{}: {}", low, high, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces the rollups of the accounts with ids in [low, high].
+     * 
+     * @return the number of accounts and of rollups written
+     */
+    private long[] rebuild(long low, long high) {
+        long accounts = jdbcTemplate.queryForList(LOCK_ACCOUNTS, Long.class, low, high).size();
+        jdbcTemplate.update(DELETE_ROLLUPS, low, high);
+
+        List<Object[]> rows = new ArrayList<>();
+        RollupChain chain = new RollupChain();
+        jdbcTemplate.query(MOVEMENTS, rs -> {
+            Instant timestamp = rs.getTimestamp("timestamp").toInstant();
+            chain.add(rs.getLong("account_id"), LocalDate.ofInstant(timestamp, ZoneOffset.UTC),
+                    TransactionType.valueOf(rs.getString("type")), Money.of(rs.getBigDecimal("amount")),
+                    rs.getInt("credit") == 1, rows);
+        }, low, high, low, high);
+        chain.flushTo(rows);
+
+        jdbcTemplate.batchUpdate(INSERT_ROLLUP, rows);
+        return new long[] { accounts, rows.size() };
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "From must be a day on or before to.");
+        }
+    }
+
+    /**
+     * The rollups of a chunk, built while its movements are read in account
+     * and time order.
+     */
+    private static class RollupChain {
+        long accountId = -1;
+        LocalDate day;
+        DayActivity activity = new DayActivity();
+        Money balance = Money.ZERO;
+
+        void add(long accountId, LocalDate day, TransactionType type, Money amount, boolean credit,
+                List<Object[]> rows) {
+            if (this.accountId != accountId) {
+                flushTo(rows);
+                this.accountId = accountId;
+                balance = Money.ZERO;
+            } else if (!day.equals(this.day)) {
+                flushTo(rows);
+            }
+            this.day = day;
+            activity.add(type, amount, credit);
+        }
+
+        void flushTo(List<Object[]> rows) {
+            if (!activity.isEmpty()) {
+                balance = balance.plus(activity.net());
+                rows.add(new Object[] { accountId, day, activity.count, activity.in.toBigDecimal(),
+                        activity.out.toBigDecimal(), activity.deposits.toBigDecimal(),
+                        activity.withdrawals.toBigDecimal(), balance.toBigDecimal() });
+            }
+            activity = new DayActivity();
+        }
+    }
+}
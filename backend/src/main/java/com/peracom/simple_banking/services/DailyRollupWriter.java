@@ -0,0 +1,269 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the daily rollups current without adding work to the transactions
+ * that post movements. Each committed movement marks the days it touched as
+ * dirty, and a background thread recomputes dirty days from the
+ * {@code transactions} table in batches, in one transaction per batch that
+ * first locks the batch's accounts in id order. A recomputed day is a
+ * function of the committed history alone, so recomputing it again, or
+ * concurrently with a backfill of the same accounts, cannot count a movement
+ * twice. Dirty days still queued when the process stops are lost; a backfill
+ * repairs them.
+ * <p>
+ * The SQL here is limited to what both H2 and MySQL 8 accept, and is checked
+ * against MySQL by {@code DailyRollupMySqlTests}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyRollupWriter {
+
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private static final String LOCK_ACCOUNTS =
+            "SELECT id FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String DAY_MOVEMENTS = """
+            SELECT type, amount, 1 AS credit FROM transactions
+            WHERE to_account_id = ? AND timestamp >= ? AND timestamp < ?
+            UNION ALL
+            SELECT type, amount, 0 AS credit FROM transactions
+            WHERE from_account_id = ? AND timestamp >= ? AND timestamp < ?
+            """;
+
+    private static final String PREVIOUS_CLOSING = """
+            SELECT closing_balance FROM account_daily_rollups
+            WHERE account_id = ? AND activity_date = (SELECT MAX(activity_date) FROM account_daily_rollups
+                                                      WHERE account_id = ? AND activity_date < ?)
+            """;
+
+    private static final String UPDATE_DAY = """
+            UPDATE account_daily_rollups
+            SET transaction_count = ?, money_in = ?, money_out = ?, deposits = ?, withdrawals = ?, closing_balance = ?
+            WHERE account_id = ? AND activity_date = ?
+            """;
+
+    private static final String INSERT_DAY = """
+            INSERT INTO account_daily_rollups (account_id, activity_date, transaction_count,
+                                               money_in, money_out, deposits, withdrawals, closing_balance)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_DAY =
+            "DELETE FROM account_daily_rollups WHERE account_id = ? AND activity_date = ?";
+
+    private static final String LATER_DAYS = """
+            SELECT activity_date, money_in, money_out, closing_balance FROM account_daily_rollups
+            WHERE account_id = ? AND activity_date > ? ORDER BY activity_date
+            """;
+
+    private static final String UPDATE_CLOSING = """
+            UPDATE account_daily_rollups SET closing_balance = ? WHERE account_id = ? AND activity_date = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactory backgroundThreadFactory;
+
+    @Value("${banking.rollups.batch-size:500}")
+    private int batchSize;
+
+    @Value("${banking.rollups.linger-ms:100}")
+    private long lingerMs;
+
+    private final BlockingQueue<DirtyDay> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong marked = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = backgroundThreadFactory.newThread(this::writeLoop);
+        worker.setName("daily-rollup-writer");
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Marks the movement's days dirty once its transaction commits; nothing
+     * is marked if it rolls back.
+     */
+    @EventListener
+    public void onPosted(TransactionPostedEvent event) {
+        LocalDate day = LocalDate.ofInstant(event.timestamp(), ZoneOffset.UTC);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark(event, day);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark(event, day);
+            }
+        });
+    }
+
+    /**
+     * Waits until every day marked dirty before the call has been
+     * recomputed, or given up on.
+     * 
+     * @return whether that happened within the timeout
+     */
+    boolean awaitSettled(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = marked.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (settled.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void mark(TransactionPostedEvent event, LocalDate day) {
+        if (event.fromAccountId() != null) {
+            marked.incrementAndGet();
+            queue.add(new DirtyDay(event.fromAccountId(), day));
+        }
+        if (event.toAccountId() != null) {
+            marked.incrementAndGet();
+            queue.add(new DirtyDay(event.toAccountId(), day));
+        }
+    }
+
+    private void writeLoop() {
+        List<DirtyDay> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                DirtyDay first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Linger so that a busy account's movements are recomputed once per batch rather than once each
+                drained.add(first);
+                TimeUnit.MILLISECONDS.sleep(lingerMs);
+                queue.drainTo(drained, batchSize - 1);
+                SortedSet<DirtyDay> batch = new TreeSet<>(drained);
+                recomputeWithRetry(batch);
+                settled.addAndGet(drained.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void recomputeWithRetry(SortedSet<DirtyDay> batch) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recompute(batch));
+                return;
+            } catch (RuntimeException e) {
+                if (e instanceof ConcurrencyFailureException && attempt < MAX_BATCH_ATTEMPTS) {
+                    continue;
+                }
+                log.error("Gave up recomputing {} daily rollups; run the rollup backfill to repair them",
+                        batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    private void recompute(SortedSet<DirtyDay> batch) {
+        List<Long> accountIds = batch.stream().map(DirtyDay::accountId).distinct().toList();
+        namedParameterJdbcTemplate.queryForList(LOCK_ACCOUNTS, Map.of("ids", accountIds), Long.class);
+        for (DirtyDay dirty : batch) {
+            recompute(dirty.accountId(), dirty.day());
+        }
+    }
+
+    /**
+     * Rewrites one day of an account from its movements, then carries any
+     * change of its closing balance through the account's later days.
+     */
+    private void recompute(long accountId, LocalDate day) {
+        Timestamp start = Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp end = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        DayActivity activity = new DayActivity();
+        jdbcTemplate.query(DAY_MOVEMENTS, rs -> {
+            activity.add(TransactionType.valueOf(rs.getString("type")), Money.of(rs.getBigDecimal("amount")),
+                    rs.getInt("credit") == 1);
+        }, accountId, start, end, accountId, start, end);
+
+        List<BigDecimal> previous = jdbcTemplate.queryForList(PREVIOUS_CLOSING, BigDecimal.class,
+                accountId, accountId, day);
+        Money closing = (previous.isEmpty() ? Money.ZERO : Money.of(previous.get(0))).plus(activity.net());
+        if (activity.isEmpty()) {
+            jdbcTemplate.update(DELETE_DAY, accountId, day);
+        } else {
+            Object[] values = { activity.count, activity.in.toBigDecimal(), activity.out.toBigDecimal(),
+                    activity.deposits.toBigDecimal(), activity.withdrawals.toBigDecimal(), closing.toBigDecimal(),
+                    accountId, day };
+            if (jdbcTemplate.update(UPDATE_DAY, values) == 0) {
+                jdbcTemplate.update(INSERT_DAY, accountId, day, activity.count, activity.in.toBigDecimal(),
+                        activity.out.toBigDecimal(), activity.deposits.toBigDecimal(),
+                        activity.withdrawals.toBigDecimal(), closing.toBigDecimal());
+            }
+        }
+
+        Money running = closing;
+        for (Map<String, Object> later : jdbcTemplate.queryForList(LATER_DAYS, accountId, day)) {
+            Money expected = running.plus(Money.of((BigDecimal) later.get("money_in")))
+                    .minus(Money.of((BigDecimal) later.get("money_out")));
+            if (!expected.equals(Money.of((BigDecimal) later.get("closing_balance")))) {
+                jdbcTemplate.update(UPDATE_CLOSING, expected.toBigDecimal(), accountId, later.get("activity_date"));
+            }
+            running = expected;
+        }
+    }
+
+    private record DirtyDay(long accountId, LocalDate day) implements Comparable<DirtyDay> {
+        @Override
+        public int compareTo(DirtyDay other) {
+            int byAccount = Long.compare(accountId, other.accountId);
+            return byAccount != 0 ? byAccount : day.compareTo(other.day);
+        }
+    }
+}
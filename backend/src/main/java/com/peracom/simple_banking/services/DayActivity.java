@@ -0,0 +1,43 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.TransactionType;
+
+/**
+ * The movements of one account on one UTC day, summed the way they are kept
+ * in its daily rollup. Transfers count towards money in or out only.
+ */
+final class DayActivity {
+
+    long count;
+    Money in = Money.ZERO;
+    Money out = Money.ZERO;
+    Money deposits = Money.ZERO;
+    Money withdrawals = Money.ZERO;
+
+    /**
+     * @param credit whether the account is the credited side of the movement
+     */
+    void add(TransactionType type, Money amount, boolean credit) {
+        count++;
+        if (credit) {
+            in = in.plus(amount);
+            if (type == TransactionType.DEPOSIT) {
+                deposits = deposits.plus(amount);
+            }
+        } else {
+            out = out.plus(amount);
+            if (type == TransactionType.WITHDRAW) {
+                withdrawals = withdrawals.plus(amount);
+            }
+        }
+    }
+
+    Money net() {
+        return in.minus(out);
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.metrics.StatementCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Coalesces concurrent units of work into one database transaction so that a
+ * burst of money movements pays for a single commit and Hibernate can send
+ * their INSERTs and UPDATEs as JDBC batches. A batch is closed when it reaches
+ * {@code banking.group-commit.batch-size} items or after
+ * {@code banking.group-commit.linger-ms}, whichever comes first; each caller
+ * is released only once its batch has committed.
+ *
+ * <p>Each item counts its statements towards the request that submitted it,
+ * and the statements of the shared flush and commit towards every request in
+ * the batch, since each of them waited for those.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.group-commit.enabled", havingValue = "true")
+public class GroupCommitter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactory backgroundThreadFactory;
+
+    @Value("${banking.group-commit.batch-size:100}")
+    private int batchSize;
+
+    @Value("${banking.group-commit.linger-ms:2}")
+    private long lingerMs;
+
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = backgroundThreadFactory.newThread(this::commitLoop);
+        worker.setName("group-committer");
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+        // Work queued after the worker's last look at the queue would otherwise wait forever
+        Pending<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.reject(shuttingDown());
+        }
+    }
+
+    /**
+     * Runs the work as part of the next group commit and waits until it is durable.
+     * Exceptions thrown by the work, or by the commit, are rethrown unchanged.
+     */
+    public <T> T execute(Supplier<T> work) {
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the work for the next group commit. Once shutdown has begun the
+     * future fails with 503 instead, unless the worker still takes the work.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        Pending<T> pending = new Pending<>(work);
+        queue.add(pending);
+        // Checked after queueing, so either this, the worker or stop() settles the work
+        if (!running && queue.remove(pending)) {
+            pending.reject(shuttingDown());
+        }
+        return pending.future;
+    }
+
+    private static ResponseStatusException shuttingDown() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down, please retry.");
+    }
+
+    private void commitLoop() {
+        List<Pending<?>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    Pending<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<?>> batch) {
+        try {
+            StatementCounter.Scope shared = StatementCounter.sharedBy(batch.stream().map(p -> p.scope).toList());
+            StatementCounter.runIn(shared, () -> transactionTemplate.execute(status -> {
+                batch.forEach(Pending::runInBatch);
+                return null;
+            }));
+            batch.forEach(Pending::complete);
+        } catch (RuntimeException e) {
+            // One bad item must not fail its neighbours: replay each on its own
+            log.debug("Group commit of {} items failed, replaying individually", batch.size(), e);
+            for (Pending<?> pending : batch) {
+                pending.runAlone(transactionTemplate);
+            }
+        }
+    }
+
+    private static final class Pending<T> {
+        private final Supplier<T> work;
+        private final StatementCounter.Scope scope = StatementCounter.capture();
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private ResponseStatusException rejection;
+
+        private Pending(Supplier<T> work) {
+            this.work = work;
+        }
+
+        /**
+         * Validation failures only reject this item; the work throws them before
+         * touching any entity, so the shared transaction stays usable.
+         */
+        private void runInBatch() {
+            try {
+                result = StatementCounter.runIn(scope, work);
+            } catch (ResponseStatusException e) {
+                rejection = e;
+            }
+        }
+
+        private void complete() {
+            release();
+            if (rejection != null) {
+                future.completeExceptionally(rejection);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        private void runAlone(TransactionTemplate transactionTemplate) {
+            try {
+                T value = StatementCounter.runIn(scope, () -> transactionTemplate.execute(status -> work.get()));
+                release();
+                future.complete(value);
+            } catch (RuntimeException e) {
+                release();
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void reject(ResponseStatusException e) {
+            release();
+            future.completeExceptionally(e);
+        }
+
+        private void release() {
+            if (scope != null) {
+                scope.release();
+            }
+        }
+    }
+}
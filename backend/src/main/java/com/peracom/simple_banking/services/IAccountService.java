@@ -1,7 +1,14 @@
 package com.peracom.simple_banking.services;
 
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.CursorPage;
 import com.peracom.simple_banking.model.Account;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import org.springframework.data.domain.Sort;
 
 /**
  * Service interface for account-related operations.
@@ -11,33 +18,56 @@ public interface IAccountService {
     /**
      * Creates a new account for a user.
      * 
-     * @param account the account to create
+     * @param request the owner and opening balance of the account
      * @return the created account with generated account number
      */
-    Account createAccount(Account account);
+    Account createAccount(CreateAccountRequest request);
 
     /**
-     * Retrieves an account by its ID.
+     * Retrieves an account by its ID, selecting only the columns of the
+     * response. Results are cached and evicted when a movement on the account
+     * commits.
      * 
      * @param id the account ID
      * @return the account
-     * @throws org.springframework.web.server.ResponseStatusException if account not
-     *                                                                found
+     * @throws org.springframework.web.server.ResponseStatusException if account
+     *         not found
      */
-    Account getAccount(Long id);
+    AccountResponse getAccount(Long id);
 
     /**
-     * Retrieves all accounts belonging to a specific user.
+     * Retrieves all accounts belonging to a specific user. Results are cached
+     * like {@link #getAccount(Long)}.
      * 
      * @param userId the user ID
      * @return list of accounts for the user
      */
-    List<Account> getAccountsByUser(Long userId);
+    List<AccountResponse> getAccountsByUser(Long userId);
 
     /**
-     * Retrieves all accounts in the system.
+     * Retrieves one page of accounts, ordered by creation time, using keyset
+     * pagination on (createdAt, id).
      * 
-     * @return list of all accounts
+     * @param filter    the filters to apply
+     * @param direction oldest first when ascending, newest first when descending
+     * @param cursor    the cursor returned with the previous page, or null for the
+     *                  first page
+     * @param limit     the maximum number of accounts to return
+     * @return the page, with a cursor for the next page if there may be more
+     * @throws org.springframework.web.server.ResponseStatusException if the
+     *         limit is out of range or the cursor is invalid
      */
-    List<Account> getAllAccounts();
+    CursorPage<AccountResponse> getAccountPage(AccountFilter filter, Sort.Direction direction, String cursor,
+            int limit);
+
+    /**
+     * Writes every account matching the filters as NDJSON, newest first. The
+     * accounts are read a page at a time, so memory use does not depend on
+     * their number.
+     * 
+     * @param filter the filters to apply
+     * @param out    the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void exportAccounts(AccountFilter filter, OutputStream out) throws IOException;
 }
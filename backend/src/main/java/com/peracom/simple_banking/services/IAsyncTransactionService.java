@@ -0,0 +1,61 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.MovementStatus;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+
+/**
+ * Service interface for money movements queued off the request threads.
+ */
+public interface IAsyncTransactionService {
+
+    /**
+     * Queues a deposit.
+     * 
+     * @param idempotencyKey the client-supplied idempotency key, or null
+     * @param request        the deposit request containing account ID and amount
+     * @return the accepted movement
+     * @throws org.springframework.web.server.ResponseStatusException with 429 if
+     *                                                                the queue is
+     *                                                                full
+     */
+    AcceptedMovement deposit(String idempotencyKey, DepositRequest request);
+
+    /**
+     * Queues a withdrawal.
+     * 
+     * @param idempotencyKey the client-supplied idempotency key, or null
+     * @param request        the withdrawal request containing account ID and amount
+     * @return the accepted movement
+     * @throws org.springframework.web.server.ResponseStatusException with 429 if
+     *                                                                the queue is
+     *                                                                full
+     */
+    AcceptedMovement withdraw(String idempotencyKey, WithdrawRequest request);
+
+    /**
+     * Queues a transfer.
+     * 
+     * @param idempotencyKey the client-supplied idempotency key, or null
+     * @param request        the transfer request containing source, destination
+     *                       accounts and amount
+     * @return the accepted movement
+     * @throws org.springframework.web.server.ResponseStatusException with 429 if
+     *                                                                the queue is
+     *                                                                full
+     */
+    AcceptedMovement transfer(String idempotencyKey, TransferRequest request);
+
+    /**
+     * Retrieves the status of an accepted movement.
+     * 
+     * @param id the id returned when the movement was accepted
+     * @return the movement's state, with its transaction or error once finished
+     * @throws org.springframework.web.server.ResponseStatusException with 404 if
+     *                                                                the id is
+     *                                                                unknown or
+     *                                                                expired
+     */
+    MovementStatus getStatus(String id);
+}
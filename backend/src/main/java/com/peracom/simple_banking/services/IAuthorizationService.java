@@ -0,0 +1,40 @@
+package com.peracom.simple_banking.services;
+
+/**
+ * Service interface for checking that the caller of a request may act on the
+ * user or account it names.
+ */
+public interface IAuthorizationService {
+
+    /**
+     * Checks that the caller is the given user.
+     * 
+     * @param principal the verified caller
+     * @param userId    the user the request acts on
+     * @throws org.springframework.web.server.ResponseStatusException with 403 if
+     *         the caller is another user
+     */
+    void checkUser(TokenPrincipal principal, Long userId);
+
+    /**
+     * Checks that the caller owns the given account. Owners are cached, since
+     * an account never changes hands.
+     * 
+     * @param principal the verified caller
+     * @param accountId the account the request acts on
+     * @throws org.springframework.web.server.ResponseStatusException with 404 if
+     *         the account does not exist, or 403 if another user owns it
+     */
+    void checkAccountOwner(TokenPrincipal principal, Long accountId);
+
+    /**
+     * Checks that the caller holds the admin role, which operations on every
+     * user or account require. The role is read on each call, so revoking it
+     * takes effect at once.
+     * 
+     * @param principal the verified caller
+     * @throws org.springframework.web.server.ResponseStatusException with 403 if
+     *         the caller is not an admin
+     */
+    void checkAdmin(TokenPrincipal principal);
+}
@@ -0,0 +1,46 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.AccountActivityReport;
+import com.peracom.simple_banking.dtos.BackfillResult;
+import com.peracom.simple_banking.dtos.DailyTotals;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for reports answered from the per-account daily rollups,
+ * so their cost grows with the number of days rather than of movements.
+ */
+public interface IDailyRollupService {
+
+    /**
+     * Reports an account's activity over an inclusive range of UTC days.
+     * 
+     * @param accountId the account ID
+     * @param from      the first day
+     * @param to        the last day
+     * @return the report, with an entry for each day that had movements
+     */
+    AccountActivityReport getAccountReport(Long accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Totals the movements of all accounts for each UTC day in an inclusive
+     * range.
+     * 
+     * @param from the first day
+     * @param to   the last day
+     * @return one entry per day that had movements, in day order
+     */
+    List<DailyTotals> getDailyTotals(LocalDate from, LocalDate to);
+
+    /**
+     * Rebuilds the rollups of every account from the transaction history, in
+     * parallel chunks of accounts. This is also the repair path for days the
+     * incremental writer lost, for example to a restart. Each chunk is rebuilt
+     * in one transaction that holds its accounts' row locks, which the
+     * incremental writer also takes, so the two never interleave on an
+     * account.
+     * 
+     * @return what was rebuilt
+     */
+    BackfillResult backfill();
+}
@@ -0,0 +1,41 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.Transaction;
+import java.util.function.Supplier;
+
+/**
+ * Service interface for de-duplicating retried money movements.
+ */
+public interface IIdempotencyService {
+
+    /**
+     * Runs a money movement at most once per idempotency key. A repeated key
+     * returns the result of the first request, and concurrent requests with
+     * the same key wait for the one already executing. The key is stored with
+     * a fingerprint of the request, in the movement's own database
+     * transaction.
+     * 
+     * @param key       the client-supplied idempotency key, or null to always run
+     * @param operation the operation name; a key cannot be reused across operations
+     * @param request   the request body, fingerprinted to detect a reused key
+     * @param work      the money movement to run
+     * @return the transaction created by the first request with this key
+     * @throws org.springframework.web.server.ResponseStatusException with 400 if
+     *         the key is invalid, or 422 if it was used for another operation or
+     *         request body
+     */
+    TransactionResponse execute(String key, String operation, Object request, Supplier<Transaction> work);
+
+    /**
+     * Wraps the transactional part of a movement so that, when it runs under
+     * {@link #execute}, the key is stored in the same database transaction as
+     * the transaction row it returns. Must be called on the thread that called
+     * {@code execute}, before the movement's transaction opens; otherwise the
+     * work is returned unchanged.
+     * 
+     * @param work the unit of work run inside the movement's transaction
+     * @return the wrapped work
+     */
+    <T> Supplier<T> recordingKey(Supplier<T> work);
+}
@@ -0,0 +1,52 @@
+package com.peracom.simple_banking.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for password hashing off the request threads.
+ */
+public interface IPasswordHashingService {
+
+    /**
+     * Hashes a password at the current cost on the hashing pool.
+     * 
+     * @param rawPassword the password to hash
+     * @return the encoded hash
+     * @throws org.springframework.web.server.ResponseStatusException with 429 if
+     *                                                                the hashing
+     *                                                                queue is full
+     */
+    CompletableFuture<String> hash(String rawPassword);
+
+    /**
+     * Hashes a batch of passwords in parallel on the hashing pool. Work that
+     * does not fit in the queue runs on the calling thread instead of being
+     * refused, so bulk callers slow down rather than fail.
+     * 
+     * @param rawPasswords the passwords to hash
+     * @return the encoded hashes, in the same order
+     */
+    List<String> hashAll(List<String> rawPasswords);
+
+    /**
+     * Checks a password against a stored hash on the hashing pool.
+     * 
+     * @param rawPassword     the password to check
+     * @param encodedPassword the stored hash
+     * @return whether the password matches
+     * @throws org.springframework.web.server.ResponseStatusException with 429 if
+     *                                                                the hashing
+     *                                                                queue is full
+     */
+    CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword);
+
+    /**
+     * Tells whether a stored hash was made with a different cost than the
+     * current one and should be replaced on the next successful login.
+     * 
+     * @param encodedPassword the stored hash
+     * @return whether the hash should be recomputed
+     */
+    boolean needsRehash(String encodedPassword);
+}
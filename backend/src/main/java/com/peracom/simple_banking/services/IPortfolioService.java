@@ -0,0 +1,21 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.PortfolioSummary;
+
+/**
+ * Service interface for per-user portfolio summaries.
+ */
+public interface IPortfolioService {
+
+    /**
+     * Summarizes a user's accounts: balances from
+     * {@link IAccountService#getAccountsByUser(Long)}, plus each account's last
+     * activity and its inflow and outflow over the last 30 UTC days. The
+     * activity comes from one aggregate query per user and day, and is then
+     * kept current by applying each committed movement to the cached figures.
+     * 
+     * @param userId the user ID
+     * @return the summary, with the accounts in id order
+     */
+    PortfolioSummary getPortfolio(Long userId);
+}
@@ -0,0 +1,21 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.ReconciliationReport;
+
+/**
+ * Service interface for checking stored balances against the transaction
+ * history.
+ */
+public interface IReconciliationService {
+
+    /**
+     * Checks that every account's balance is the net of its transactions.
+     * Accounts are checked in id ranges on a fork-join pool, paced to the
+     * configured rate, without locking anything in the common case. An
+     * account that looks wrong is checked again under its row lock, so a
+     * movement in flight during the first read is not reported.
+     * 
+     * @return the accounts found wrong on both checks
+     */
+    ReconciliationReport reconcile();
+}
@@ -0,0 +1,23 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.StatementFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for account statement exports.
+ */
+public interface IStatementService {
+
+    /**
+     * Writes an account's full transaction history, oldest first, with a running
+     * balance column. Rows are streamed from the database, so memory use does not
+     * depend on the length of the history.
+     * 
+     * @param accountId the account ID
+     * @param format    the output format
+     * @param out       the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void exportStatement(Long accountId, StatementFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,41 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.AccessToken;
+
+/**
+ * Service interface for stateless access tokens.
+ */
+public interface ITokenService {
+
+    /**
+     * Issues a signed access token for a user who has just logged in.
+     * 
+     * @param userId the authenticated user's ID
+     * @return the token and its expiry
+     */
+    AccessToken issue(Long userId);
+
+    /**
+     * Verifies a token's signature, expiry and revocation in memory, without
+     * touching the database or the password hasher.
+     * 
+     * @param token the bearer token
+     * @return the caller the token was issued to
+     * @throws org.springframework.web.server.ResponseStatusException with 401 if
+     *                                                                the token is
+     *                                                                malformed,
+     *                                                                forged, expired
+     *                                                                or revoked
+     */
+    TokenPrincipal verify(String token);
+
+    /**
+     * Revokes a token until it would have expired anyway.
+     * 
+     * @param token the bearer token
+     * @throws org.springframework.web.server.ResponseStatusException with 401 if
+     *                                                                the token is
+     *                                                                not valid
+     */
+    void revoke(String token);
+}
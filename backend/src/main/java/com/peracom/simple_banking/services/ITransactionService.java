@@ -1,10 +1,14 @@
 package com.peracom.simple_banking.services;
 
+import com.peracom.simple_banking.dtos.BatchTransactionRequest;
+import com.peracom.simple_banking.dtos.BatchTransactionResponse;
 import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransactionPage;
 import com.peracom.simple_banking.dtos.TransferRequest;
 import com.peracom.simple_banking.dtos.WithdrawRequest;
 import com.peracom.simple_banking.model.Transaction;
-import java.util.List;
+import com.peracom.simple_banking.model.TransactionType;
+import java.time.Instant;
 
 /**
  * Service interface for transaction-related operations.
@@ -37,10 +41,27 @@ public interface ITransactionService {
     Transaction transfer(TransferRequest request);
 
     /**
-     * Retrieves all transactions for a specific account.
+     * Applies a batch of deposits, withdrawals and transfers, in the order
+     * given, within a single database transaction.
+     * 
+     * @param request the batch items and whether they must all succeed together
+     * @return the outcome of every item
+     */
+    BatchTransactionResponse executeBatch(BatchTransactionRequest request);
+
+    /**
+     * Retrieves one page of an account's transactions, newest first, using
+     * keyset pagination on (timestamp, id).
      * 
      * @param accountId the account ID
-     * @return list of transactions involving the account
+     * @param cursor    the cursor returned with the previous page, or null for the
+     *                  first page
+     * @param limit     the maximum number of transactions to return
+     * @param from      inclusive lower bound on the timestamp, or null
+     * @param to        exclusive upper bound on the timestamp, or null
+     * @param type      the transaction type to return, or null for all types
+     * @return the page, with a cursor for the next page if there may be more
      */
-    List<Transaction> getTransactionsForAccount(Long accountId);
+    TransactionPage getTransactionPage(
+            Long accountId, String cursor, int limit, Instant from, Instant to, TransactionType type);
 }
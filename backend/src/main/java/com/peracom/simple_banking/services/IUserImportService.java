@@ -0,0 +1,42 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.ImportFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service interface for bulk user onboarding.
+ */
+public interface IUserImportService {
+
+    /**
+     * Imports users, opening an account for every row with an opening
+     * balance. The input is read incrementally and persisted in chunks, so
+     * memory use does not depend on its size. CSV input starts with a header
+     * naming the columns {@code name}, {@code email}, {@code password},
+     * {@code password_hash} and {@code opening_balance}; NDJSON rows are
+     * objects with the same fields in camel case. Each row carries either a
+     * password or an existing BCrypt hash.
+     *
+     * @param in     the rows to import
+     * @param format the format of the rows
+     * @param report receives one NDJSON line per rejected row, then a summary
+     *               line with the counts and rows per second; it is flushed
+     *               after every chunk but not closed
+     * @throws IOException if the input cannot be read or the report written
+     * @throws org.springframework.web.server.ResponseStatusException if the CSV
+     *         header lacks a required column
+     */
+    void importUsers(InputStream in, ImportFormat format, OutputStream report) throws IOException;
+
+    /**
+     * Opens a file from the server-side import directory.
+     *
+     * @param path the file's path relative to the import directory
+     * @return the file's contents, to be closed by the caller
+     * @throws org.springframework.web.server.ResponseStatusException with 400
+     *         if the path leaves the directory, or 404 if there is no such file
+     */
+    InputStream openImportFile(String path) throws IOException;
+}
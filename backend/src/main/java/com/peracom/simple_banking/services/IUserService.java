@@ -1,9 +1,15 @@
 package com.peracom.simple_banking.services;
 
+import com.peracom.simple_banking.dtos.CursorPage;
 import com.peracom.simple_banking.dtos.LoginRequest;
 import com.peracom.simple_banking.dtos.RegisterRequest;
+import com.peracom.simple_banking.dtos.UserFilter;
+import com.peracom.simple_banking.dtos.UserResponse;
 import com.peracom.simple_banking.model.User;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.data.domain.Sort;
 
 /**
  * Service interface for user-related operations.
@@ -11,39 +17,60 @@ import java.util.List;
 public interface IUserService {
 
     /**
-     * Registers a new user in the system.
+     * Registers a new user in the system. The password is hashed on the
+     * hashing pool and the user is saved once the hash is ready.
      * 
      * @param request the registration request containing user details
-     * @return the registered user
-     * @throws org.springframework.web.server.ResponseStatusException if validation
-     *                                                                fails or email
-     *                                                                already exists
+     * @return the registered user, once saved
+     * @throws org.springframework.web.server.ResponseStatusException if
+     *         validation fails or email already exists, or 429 if the hashing
+     *         queue is full
      */
-    User register(RegisterRequest request);
+    CompletableFuture<User> register(RegisterRequest request);
 
     /**
-     * Authenticates a user with email and password.
+     * Authenticates a user with email and password. The password is checked on
+     * the hashing pool, and a hash made at an outdated cost is replaced in the
+     * background.
      * 
      * @param request the login request containing credentials
-     * @return the authenticated user
-     * @throws org.springframework.web.server.ResponseStatusException if credentials
-     *                                                                are invalid
+     * @return the authenticated user, once verified
+     * @throws org.springframework.web.server.ResponseStatusException if
+     *         credentials are invalid, or 429 if the hashing queue is full
      */
-    User login(LoginRequest request);
+    CompletableFuture<User> login(LoginRequest request);
 
     /**
-     * Retrieves all users in the system.
+     * Retrieves one page of users, ordered by creation time, using keyset
+     * pagination on (createdAt, id).
      * 
-     * @return list of all users
+     * @param filter    the filters to apply
+     * @param direction oldest first when ascending, newest first when descending
+     * @param cursor    the cursor returned with the previous page, or null for the
+     *                  first page
+     * @param limit     the maximum number of users to return
+     * @return the page, with a cursor for the next page if there may be more
+     * @throws org.springframework.web.server.ResponseStatusException if the
+     *         limit is out of range or the cursor is invalid
      */
-    List<User> getAllUsers();
+    CursorPage<UserResponse> getUserPage(UserFilter filter, Sort.Direction direction, String cursor, int limit);
+
+    /**
+     * Writes every user matching the filters as NDJSON, newest first. The users
+     * are read a page at a time, so memory use does not depend on their number.
+     * 
+     * @param filter the filters to apply
+     * @param out    the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void exportUsers(UserFilter filter, OutputStream out) throws IOException;
 
     /**
      * Deletes a user by ID.
      * 
      * @param id the user ID
-     * @throws org.springframework.web.server.ResponseStatusException if user not
-     *                                                                found
+     * @throws org.springframework.web.server.ResponseStatusException if user
+     *         not found
      */
     void deleteUser(Long id);
 }
@@ -0,0 +1,284 @@
+package com.peracom.simple_banking.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.IdempotencyRecord;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.IdempotencyRecordRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Stores each key with the id of its transaction in the movement's own
+ * database transaction, through {@link #recordingKey}, so a key is either
+ * stored with its result or not at all. A duplicate running elsewhere fails
+ * on the key's primary key when it commits, is rolled back, and replays the
+ * stored result instead.
+ *
+ * <p>Every response carries both account numbers. Movements on the in-memory
+ * ledger only hold account references, so missing numbers are looked up
+ * through a cache; account numbers never change.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService implements IIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${banking.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${banking.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${banking.account-number.cache-size:100000}")
+    private long accountNumberCacheSize;
+
+    private final ThreadLocal<Claim> claims = new ThreadLocal<>();
+    private final Map<String, Running> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedResult> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    private Cache<Long, String> accountNumbers;
+
+    @PostConstruct
+    void init() {
+        accountNumbers = Caffeine.newBuilder().maximumSize(accountNumberCacheSize).build();
+    }
+
+    public TransactionResponse execute(String key, String operation, Object request, Supplier<Transaction> work) {
+        if (key == null) {
+            return respond(work.get());
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String requestHash = fingerprint(operation, request);
+
+        TransactionResponse cached = fromCache(key, operation, requestHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Coalesce concurrent duplicates onto whichever request got here first
+        Running mine = new Running(operation, requestHash, new CompletableFuture<>());
+        Running running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkRequest(running.operation(), running.requestHash(), operation, requestHash);
+            try {
+                return running.result().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            TransactionResponse result = claimAndRun(key, operation, requestHash, work);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    public <T> Supplier<T> recordingKey(Supplier<T> work) {
+        Claim claim = claims.get();
+        if (claim == null) {
+            return work;
+        }
+        claims.remove();
+        return () -> {
+            T result = work.get();
+            if (result instanceof Transaction transaction && transaction.getId() != null) {
+                claim.attempted = true;
+                idempotencyRecordRepository.save(claim.toRecord(transaction.getId()));
+                claim.recorded = true;
+            }
+            return result;
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    private TransactionResponse claimAndRun(
+            String key, String operation, String requestHash, Supplier<Transaction> work) {
+        // Another request may have finished between the cache check and taking the in-flight slot,
+        // here or on another node
+        TransactionResponse stored = fromCache(key, operation, requestHash);
+        if (stored == null) {
+            stored = fromStore(key, operation, requestHash);
+        }
+        if (stored != null) {
+            return stored;
+        }
+
+        Claim claim = new Claim(key, operation, requestHash);
+        claims.set(claim);
+        Transaction transaction;
+        try {
+            transaction = work.get();
+        } catch (RuntimeException e) {
+            // Failed requests are not remembered, unless a duplicate committed the key first
+            stored = claim.attempted ? fromStore(key, operation, requestHash) : null;
+            if (stored != null) {
+                return stored;
+            }
+            throw e;
+        } finally {
+            claims.remove();
+        }
+
+        TransactionResponse result = respond(transaction);
+        if (!claim.recorded && transaction.getId() != null) {
+            // The in-memory ledger has no database transaction to join, so the key is stored after the fact
+            try {
+                idempotencyRecordRepository.save(claim.toRecord(transaction.getId()));
+            } catch (DataIntegrityViolationException e) {
+                return fromStore(key, operation, requestHash);
+            }
+        }
+        remember(key, new CachedResult(operation, requestHash, result, Instant.now().plus(ttl)));
+        return result;
+    }
+
+    private TransactionResponse respond(Transaction transaction) {
+        return TransactionResponse.of(transaction).withAccountNumbers(accountId -> accountNumbers.get(accountId,
+                id -> accountRepository.findAccountNumberById(id).orElse(null)));
+    }
+
+    /**
+     * Returns the stored result of the key, or null if no request with it has
+     * committed.
+     */
+    private TransactionResponse fromStore(String key, String operation, String requestHash) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key).orElse(null);
+        if (record == null) {
+            return null;
+        }
+        checkRequest(record.getOperation(), record.getRequestHash(), operation, requestHash);
+        // A write-behind ledger may not have persisted the transaction yet
+        TransactionResponse result = transactionRepository.findResponseById(record.getTransactionId())
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being recorded."));
+        remember(key, new CachedResult(operation, requestHash, result, Instant.now().plus(ttl)));
+        return result;
+    }
+
+    private TransactionResponse fromCache(String key, String operation, String requestHash) {
+        CachedResult entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (entry != null && entry.expiresAt().isBefore(Instant.now())) {
+                cache.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        checkRequest(entry.operation(), entry.requestHash(), operation, requestHash);
+        return entry.result();
+    }
+
+    private void remember(String key, CachedResult result) {
+        synchronized (cache) {
+            cache.put(key, result);
+        }
+    }
+
+    private static void checkRequest(
+            String storedOperation, String storedHash, String operation, String requestHash) {
+        if (!storedOperation.equals(operation)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a " + storedOperation + ".");
+        }
+        if (!Objects.equals(storedHash, requestHash)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used with a different request.");
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint the request.", e);
+        }
+    }
+
+    /**
+     * A key waiting to be stored by the movement running on this thread. The
+     * flags are written on whichever thread runs the movement's transaction.
+     */
+    private static final class Claim {
+        private final String key;
+        private final String operation;
+        private final String requestHash;
+        private volatile boolean attempted;
+        private volatile boolean recorded;
+
+        private Claim(String key, String operation, String requestHash) {
+            this.key = key;
+            this.operation = operation;
+            this.requestHash = requestHash;
+        }
+
+        private IdempotencyRecord toRecord(Long transactionId) {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(key);
+            record.setOperation(operation);
+            record.setRequestHash(requestHash);
+            record.setTransactionId(transactionId);
+            return record;
+        }
+    }
+
+    private record Running(String operation, String requestHash, CompletableFuture<TransactionResponse> result) {
+    }
+
+    private record CachedResult(String operation, String requestHash, TransactionResponse result, Instant expiresAt) {
+    }
+}
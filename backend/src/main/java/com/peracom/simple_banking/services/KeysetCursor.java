@@ -0,0 +1,48 @@
+package com.peracom.simple_banking.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A position in a listing ordered by (time, id), which keyset-paginated
+ * endpoints hand out as an opaque base64url cursor.
+ */
+record KeysetCursor(Instant time, long id) {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * @throws ResponseStatusException with 400 if the page size is out of range
+     */
+    static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * @return the position, or {@code null} for a null or blank cursor
+     * @throws ResponseStatusException with 400 if the cursor is malformed
+     */
+    static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|");
+            return new KeysetCursor(Instant.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (time + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
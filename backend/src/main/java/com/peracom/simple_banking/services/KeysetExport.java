@@ -0,0 +1,51 @@
+package com.peracom.simple_banking.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Dumps a keyset-paginated listing as NDJSON by walking it a page at a time.
+ * Each page is a short query of its own, so neither memory use nor the length
+ * of any transaction depends on the size of the table.
+ */
+final class KeysetExport {
+
+    static final int PAGE_SIZE = 1000;
+
+    private KeysetExport() {
+    }
+
+    interface PageQuery<T> {
+        List<T> page(KeysetCursor after, int limit);
+    }
+
+    /**
+     * @param position where an item sits in the listing's order
+     * @return the number of items written
+     */
+    static <T> long write(ObjectMapper objectMapper, OutputStream out, PageQuery<T> pages,
+            Function<T, KeysetCursor> position) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        long written = 0;
+        KeysetCursor after = null;
+        List<T> page;
+        do {
+            page = pages.page(after, PAGE_SIZE);
+            for (T item : page) {
+                generator.writeObject(item);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            written += page.size();
+            if (!page.isEmpty()) {
+                after = position.apply(page.get(page.size() - 1));
+            }
+        } while (page.size() == PAGE_SIZE);
+        return written;
+    }
+}
@@ -0,0 +1,26 @@
+package com.peracom.simple_banking.services;
+
+/**
+ * Concurrency control used when money movements update account balances.
+ */
+public enum LockMode {
+    /**
+     * Accounts are row-locked with SELECT ... FOR UPDATE, always in ascending id
+     * order so that opposite transfers cannot deadlock.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Accounts are read without locks and the {@code @Version} column rejects
+     * lost updates; conflicting operations are retried with backoff.
+     */
+    OPTIMISTIC,
+
+    /**
+     * Accounts are read without locks and every update runs on the
+     * {@link AccountShards single-threaded shard} its accounts hash to, so
+     * updates to one account are serialized in process. Only safe while a
+     * single node writes to the database.
+     */
+    SHARDED
+}
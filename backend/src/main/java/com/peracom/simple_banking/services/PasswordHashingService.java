@@ -0,0 +1,162 @@
+package com.peracom.simple_banking.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs BCrypt on a bounded pool of platform threads sized to the CPUs, so a
+ * login storm queues here instead of holding every servlet thread, and turns
+ * a full queue into 429s. Unless a cost is configured, the cost is calibrated
+ * at startup to the largest one whose hash stays within the target time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService implements IPasswordHashingService {
+
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+    private static final int CALIBRATION_COST = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${banking.password.cost:0}")
+    private int configuredCost;
+
+    @Value("${banking.password.target-ms:100}")
+    private long targetMs;
+
+    @Value("${banking.password.min-cost:10}")
+    private int minCost;
+
+    @Value("${banking.password.max-cost:16}")
+    private int maxCost;
+
+    @Value("${banking.password.threads:0}")
+    private int threads;
+
+    @Value("${banking.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    private int cost;
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+
+    @PostConstruct
+    void start() {
+        cost = configuredCost > 0 ? configuredCost : calibrate();
+        encoder = new BCryptPasswordEncoder(cost);
+        log.info("Password hashing uses BCrypt cost {}", cost);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = Timer.builder("banking.password.queue.wait")
+                .description("Time password hashing work waits for a hashing thread")
+                .register(meterRegistry);
+        meterRegistry.gauge("banking.password.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit("hash", () -> encoder.encode(rawPassword));
+    }
+
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            Supplier<String> work = () -> encoder.encode(rawPassword);
+            try {
+                hashes.add(schedule("hash", work));
+            } catch (RejectedExecutionException e) {
+                hashes.add(CompletableFuture.completedFuture(latency("hash").record(work)));
+            }
+        }
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit("verify", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return costOf(encodedPassword) != cost;
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> work) {
+        try {
+            return schedule(operation, work);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.TOO_MANY_REQUESTS, "Too many password operations in progress, please retry.", e);
+        }
+    }
+
+    private <T> CompletableFuture<T> schedule(String operation, Supplier<T> work) {
+        Timer latency = latency(operation);
+        long queuedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return latency.record(work);
+        }, executor);
+    }
+
+    private Timer latency(String operation) {
+        return Timer.builder("banking.password.hash")
+                .description("BCrypt latency")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Times a hash at a cheap cost and extrapolates, since each cost step
+     * doubles the work.
+     */
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_COST);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double steps = Math.log((double) TimeUnit.MILLISECONDS.toNanos(targetMs) / best) / Math.log(2);
+        int calibrated = CALIBRATION_COST + (int) Math.floor(steps);
+        return Math.max(Math.max(minCost, MIN_BCRYPT_COST), Math.min(Math.min(maxCost, MAX_BCRYPT_COST), calibrated));
+    }
+
+    private static int costOf(String encodedPassword) {
+        // $2a$10$... : the cost is the two digits after the version
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
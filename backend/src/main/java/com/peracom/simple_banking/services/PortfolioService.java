@@ -0,0 +1,194 @@
+package com.peracom.simple_banking.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peracom.simple_banking.dtos.AccountActivity;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.AccountSummary;
+import com.peracom.simple_banking.dtos.PortfolioSummary;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps each account's activity for the current UTC day in a local cache.
+ * Movements are counted per stripe of accounts when they are inserted and
+ * again when their transaction completes; an aggregate result is cached only
+ * if no movement on its accounts was in flight while it was read, so a
+ * movement is never both in the query result and applied on top of it.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioService implements IPortfolioService {
+
+    static final int WINDOW_DAYS = 30;
+
+    private static final int STRIPES = 1024;
+
+    private final IAccountService accountService;
+    private final AccountRepository accountRepository;
+
+    @Value("${banking.portfolio.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${banking.portfolio.ttl:PT10M}")
+    private Duration ttl;
+
+    private final AtomicLongArray begun = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray finished = new AtomicLongArray(STRIPES);
+    private Cache<Long, Activity> activities;
+
+    @PostConstruct
+    void start() {
+        // The ttl bounds how long movements posted by other nodes go unseen
+        activities = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public PortfolioSummary getPortfolio(Long userId) {
+        List<AccountResponse> accounts = accountService.getAccountsByUser(userId);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Map<Long, Activity> current = new HashMap<>(activities.getAllPresent(
+                accounts.stream().map(AccountResponse::getId).toList()));
+        current.values().removeIf(activity -> !activity.day().equals(today));
+        if (current.size() < accounts.size()) {
+            current = load(userId, accounts, today);
+        }
+
+        Money totalBalance = Money.ZERO;
+        Money totalInflow = Money.ZERO;
+        Money totalOutflow = Money.ZERO;
+        List<AccountSummary> summaries = new ArrayList<>(accounts.size());
+        for (AccountResponse account : accounts) {
+            Activity activity = current.getOrDefault(account.getId(), Activity.none(today));
+            summaries.add(new AccountSummary(account.getId(), account.getAccountNumber(), account.getBalance(),
+                    account.getStatus(), activity.lastActivityAt(), activity.inflow(), activity.outflow()));
+            totalBalance = totalBalance.plus(account.getBalance());
+            totalInflow = totalInflow.plus(activity.inflow());
+            totalOutflow = totalOutflow.plus(activity.outflow());
+        }
+        return new PortfolioSummary(userId, windowStart(today), totalBalance, totalInflow, totalOutflow, summaries);
+    }
+
+    /**
+     * Counts the movement as in flight until its transaction completes, then
+     * applies it to the cached activity if it committed.
+     */
+    @EventListener
+    public void onPosted(TransactionPostedEvent event) {
+        begin(event.fromAccountId());
+        begin(event.toAccountId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(event, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(event, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private Map<Long, Activity> load(Long userId, List<AccountResponse> accounts, LocalDate today) {
+        // Read finished before begun: if they are then equal, nothing was in flight once begun was read
+        long[] quiet = new long[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            int stripe = stripeOf(accounts.get(i).getId());
+            long done = finished.get(stripe);
+            quiet[i] = begun.get(stripe) == done ? done : -1;
+        }
+
+        Map<Long, Activity> loaded = new HashMap<>();
+        for (AccountActivity row : accountRepository.findActivityByUserId(userId, windowStart(today))) {
+            loaded.put(row.getAccountId(), Activity.of(today, row));
+        }
+
+        for (int i = 0; i < accounts.size(); i++) {
+            Long accountId = accounts.get(i).getId();
+            Activity activity = loaded.get(accountId);
+            if (activity != null && quiet[i] >= 0 && begun.get(stripeOf(accountId)) == quiet[i]) {
+                activities.put(accountId, activity);
+            }
+        }
+        return loaded;
+    }
+
+    private void begin(Long accountId) {
+        if (accountId != null) {
+            begun.incrementAndGet(stripeOf(accountId));
+        }
+    }
+
+    private void complete(TransactionPostedEvent event, boolean committed) {
+        if (committed) {
+            apply(event.fromAccountId(), event.timestamp(), Money.ZERO, event.amount());
+            apply(event.toAccountId(), event.timestamp(), event.amount(), Money.ZERO);
+        }
+        if (event.fromAccountId() != null) {
+            finished.incrementAndGet(stripeOf(event.fromAccountId()));
+        }
+        if (event.toAccountId() != null) {
+            finished.incrementAndGet(stripeOf(event.toAccountId()));
+        }
+    }
+
+    private void apply(Long accountId, Instant timestamp, Money inflow, Money outflow) {
+        if (accountId != null) {
+            activities.asMap().computeIfPresent(accountId, (id, activity) -> activity.plus(timestamp, inflow, outflow));
+        }
+    }
+
+    private static int stripeOf(Long accountId) {
+        return Long.hashCode(accountId) & (STRIPES - 1);
+    }
+
+    private static Instant windowStart(LocalDate today) {
+        return today.minusDays(WINDOW_DAYS - 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private record Activity(LocalDate day, Instant lastActivityAt, Money inflow, Money outflow) {
+
+        static Activity none(LocalDate day) {
+            return new Activity(day, null, Money.ZERO, Money.ZERO);
+        }
+
+        static Activity of(LocalDate day, AccountActivity row) {
+            return new Activity(day, latest(row.getLastDebitAt(), row.getLastCreditAt()),
+                    moneyOf(row.getInflow()), moneyOf(row.getOutflow()));
+        }
+
+        Activity plus(Instant timestamp, Money in, Money out) {
+            if (timestamp.isBefore(windowStart(day))) {
+                return new Activity(day, latest(lastActivityAt, timestamp), inflow, outflow);
+            }
+            return new Activity(day, latest(lastActivityAt, timestamp), inflow.plus(in), outflow.plus(out));
+        }
+
+        private static Instant latest(Instant a, Instant b) {
+            return a == null ? b : b == null || a.isAfter(b) ? a : b;
+        }
+
+        private static Money moneyOf(BigDecimal amount) {
+            return amount != null ? Money.of(amount) : Money.ZERO;
+        }
+    }
+}
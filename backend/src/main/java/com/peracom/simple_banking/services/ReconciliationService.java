@@ -0,0 +1,253 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.dtos.Discrepancy;
+import com.peracom.simple_banking.dtos.ReconciliationReport;
+import com.peracom.simple_banking.ledger.EventSourcedLedger;
+import com.peracom.simple_banking.model.Money;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reconciles balances range by range: a range of account ids is split in
+ * halves on a fork-join pool until it is at most {@code chunk-size} ids
+ * wide, and each chunk streams its accounts and the per-account totals of
+ * their credits and debits, each grouped from one range scan of an account
+ * index on {@code transactions}. The three reads are not one snapshot, so a
+ * mismatch is only reported once it holds under the account's row lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService implements IReconciliationService {
+
+    private static final String NET = """
+            COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.to_account_id = a.id), 0)
+            - COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.from_account_id = a.id), 0)
+            """;
+
+    private static final String ACCOUNTS_IN_RANGE = """
+            SELECT id, account_number, balance FROM accounts WHERE id BETWEEN ? AND ? ORDER BY id
+            """;
+
+    private static final String CREDITS_IN_RANGE = """
+            SELECT to_account_id AS account_id, SUM(amount) AS total FROM transactions
+            WHERE to_account_id BETWEEN ? AND ? GROUP BY to_account_id
+            """;
+
+    private static final String DEBITS_IN_RANGE = """
+            SELECT from_account_id AS account_id, SUM(amount) AS total FROM transactions
+            WHERE from_account_id BETWEEN ? AND ? GROUP BY from_account_id
+            """;
+
+    private static final String CHECK_LOCKED = "SELECT a.balance, " + NET + " AS net "
+            + "FROM accounts a WHERE a.id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<EventSourcedLedger> eventSourcedLedger;
+
+    @Value("${banking.reconciliation.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${banking.reconciliation.threads:0}")
+    private int threads;
+
+    @Value("${banking.reconciliation.max-accounts-per-second:0}")
+    private long maxAccountsPerSecond;
+
+    @Value("${banking.reconciliation.max-reported:1000}")
+    private int maxReported;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${banking.reconciliation.cron:-}", zone = "UTC")
+    public void reconcileEndOfDay() {
+        try {
+            reconcile();
+        } catch (ResponseStatusException e) {
+            log.warn("Skipped scheduled reconciliation: {}", e.getReason());
+        }
+    }
+
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A reconciliation is already running.");
+        }
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        try {
+            Run run = new Run();
+            Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM accounts", Long.class);
+            Long last = jdbcTemplate.queryForObject("SELECT MAX(id) FROM accounts", Long.class);
+            if (first != null) {
+                int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+                ForkJoinPool pool = new ForkJoinPool(parallelism, ReconciliationService::newWorker, null, false);
+                try {
+                    pool.invoke(new RangeCheck(run, first, last));
+                } finally {
+                    pool.shutdownNow();
+                }
+            }
+
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            long checked = run.checked.sum();
+            long found = run.found.get();
+            List<Discrepancy> listed = new ArrayList<>(run.listed);
+            listed.sort(Comparator.comparing(Discrepancy::getAccountId));
+            double perSecond = elapsedMs > 0 ? checked * 1000.0 / elapsedMs : checked;
+            if (found > 0) {
+                log.warn("Reconciled {} accounts in {} ms: {} discrepancies", checked, elapsedMs, found);
+            } else {
+                log.info("Reconciled {} accounts in {} ms: no discrepancies", checked, elapsedMs);
+            }
+            return new ReconciliationReport(startedAt, checked, found, found > listed.size(), elapsedMs, perSecond,
+                    listed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void check(Run run, long low, long high) {
+        // At most chunk-size entries, one per account in the range with any transactions
+        Map<Long, Money> nets = new HashMap<>();
+        jdbcTemplate.query(CREDITS_IN_RANGE, rs -> {
+            nets.merge(rs.getLong("account_id"), Money.of(rs.getBigDecimal("total")), Money::plus);
+        }, low, high);
+        jdbcTemplate.query(DEBITS_IN_RANGE, rs -> {
+            nets.merge(rs.getLong("account_id"), Money.of(rs.getBigDecimal("total")).negate(), Money::plus);
+        }, low, high);
+
+        List<Discrepancy> suspects = new ArrayList<>();
+        long[] checked = { 0 };
+        jdbcTemplate.query(ACCOUNTS_IN_RANGE, rs -> {
+            checked[0]++;
+            long id = rs.getLong("id");
+            Money stored = Money.of(rs.getBigDecimal("balance"));
+            Money net = nets.getOrDefault(id, Money.ZERO);
+            if (!stored.equals(net)) {
+                suspects.add(new Discrepancy(id, rs.getString("account_number"), stored, net));
+            }
+        }, low, high);
+
+        EventSourcedLedger ledger = eventSourcedLedger.getIfAvailable();
+        if (ledger != null && !suspects.isEmpty()) {
+            // The balance column only holds the last snapshot, so compare the derived balance instead
+            Map<Long, Money> current = ledger.balancesOf(suspects.stream().map(Discrepancy::getAccountId).toList());
+            // An account deleted since the range was read has no balance left to reconcile
+            suspects.removeIf(suspect -> {
+                Money derived = current.get(suspect.getAccountId());
+                return derived == null || derived.equals(suspect.getComputedBalance());
+            });
+        }
+        for (Discrepancy suspect : suspects) {
+            Discrepancy confirmed = recheck(suspect, ledger);
+            if (confirmed != null && run.found.incrementAndGet() <= maxReported) {
+                run.listed.add(confirmed);
+            }
+        }
+
+        run.checked.add(checked[0]);
+        run.pace(checked[0]);
+    }
+
+    /**
+     * @return the discrepancy as it stands while the account is locked, or
+     *         {@code null} if the first read caught a movement half applied
+     *         or the account has since been deleted
+     */
+    private Discrepancy recheck(Discrepancy suspect, EventSourcedLedger ledger) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(CHECK_LOCKED, (rs, row) -> {
+            Money net = Money.of(rs.getBigDecimal("net"));
+            Money stored = ledger != null ? ledger.balanceOf(suspect.getAccountId())
+                    : Money.of(rs.getBigDecimal("balance"));
+            return stored.equals(net) ? null
+                    : new Discrepancy(suspect.getAccountId(), suspect.getAccountNumber(), stored, net);
+        }, suspect.getAccountId()).stream().filter(Objects::nonNull).findFirst().orElse(null));
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("reconciliation-" + worker.getPoolIndex());
+        worker.setDaemon(true);
+        return worker;
+    }
+
+    /**
+     * The state shared by the chunks of one run.
+     */
+    private final class Run {
+        final LongAdder checked = new LongAdder();
+        final AtomicLong found = new AtomicLong();
+        final Queue<Discrepancy> listed = new ConcurrentLinkedQueue<>();
+        // When the next account may be read, if reads are paced
+        final AtomicLong nextReadAt = new AtomicLong(System.nanoTime());
+
+        /**
+         * Holds back the calling worker until the accounts it just read fit
+         * within {@code max-accounts-per-second} across all workers.
+         */
+        void pace(long accounts) {
+            if (maxAccountsPerSecond <= 0 || accounts == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            long cost = accounts * TimeUnit.SECONDS.toNanos(1) / maxAccountsPerSecond;
+            long wait = nextReadAt.getAndAccumulate(cost, (next, c) -> Math.max(next, now) + c) - now;
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ResponseStatusException(
+                            HttpStatus.SERVICE_UNAVAILABLE, "Interrupted during reconciliation.", e);
+                }
+            }
+        }
+    }
+
+    private final class RangeCheck extends RecursiveAction {
+        private final Run run;
+        private final long low;
+        private final long high;
+
+        RangeCheck(Run run, long low, long high) {
+            this.run = run;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < chunkSize) {
+                check(run, low, high);
+                return;
+            }
+            long middle = low + (high - low) / 2;
+            invokeAll(new RangeCheck(run, low, middle), new RangeCheck(run, middle + 1, high));
+        }
+    }
+}
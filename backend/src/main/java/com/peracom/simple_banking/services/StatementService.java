@@ -0,0 +1,126 @@
+package com.peracom.simple_banking.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.dtos.StatementFormat;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.TransactionRepository.StatementLine;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class StatementService implements IStatementService {
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportStatement(Long accountId, StatementFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        LineWriter lines = format == StatementFormat.CSV ? new CsvLineWriter(writer) : new NdjsonLineWriter(writer);
+
+        // Opening balances are recorded as deposits, so the history starts from zero
+        Money balance = Money.ZERO;
+        try (Stream<StatementLine> stream = transactionRepository.streamStatement(accountId)) {
+            for (StatementLine line : (Iterable<StatementLine>) stream::iterator) {
+                Money signed = accountId.equals(line.getToAccountId())
+                        ? line.getAmount()
+                        : line.getAmount().negate();
+                balance = balance.plus(signed);
+                lines.write(line, signed, balance);
+            }
+        }
+        lines.finish();
+        writer.flush();
+    }
+
+    private interface LineWriter {
+        void write(StatementLine line, Money signedAmount, Money runningBalance) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvLineWriter implements LineWriter {
+        private final Writer writer;
+
+        private CsvLineWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,timestamp,type,from_account_id,to_account_id,amount,running_balance,description\n");
+        }
+
+        @Override
+        public void write(StatementLine line, Money signedAmount, Money runningBalance) throws IOException {
+            writer.write(String.valueOf(line.getId()));
+            writer.write(',');
+            writer.write(line.getTimestamp().toString());
+            writer.write(',');
+            writer.write(line.getType().name());
+            writer.write(',');
+            writer.write(line.getFromAccountId() != null ? line.getFromAccountId().toString() : "");
+            writer.write(',');
+            writer.write(line.getToAccountId() != null ? line.getToAccountId().toString() : "");
+            writer.write(',');
+            writer.write(signedAmount.toString());
+            writer.write(',');
+            writer.write(runningBalance.toString());
+            writer.write(',');
+            writeQuoted(line.getDescription());
+            writer.write('\n');
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonLineWriter implements LineWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonLineWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(StatementLine line, Money signedAmount, Money runningBalance) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", line.getId());
+            generator.writeStringField("timestamp", line.getTimestamp().toString());
+            generator.writeStringField("type", line.getType().name());
+            if (line.getFromAccountId() != null) {
+                generator.writeNumberField("fromAccountId", line.getFromAccountId());
+            }
+            if (line.getToAccountId() != null) {
+                generator.writeNumberField("toAccountId", line.getToAccountId());
+            }
+            generator.writeFieldName("amount");
+            generator.writeNumber(signedAmount.toString());
+            generator.writeFieldName("runningBalance");
+            generator.writeNumber(runningBalance.toString());
+            generator.writeStringField("description", line.getDescription());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.peracom.simple_banking.services;
+
+import java.time.Instant;
+
+/**
+ * The caller identified by a verified access token.
+ */
+public record TokenPrincipal(Long userId, String tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,167 @@
+package com.peracom.simple_banking.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.peracom.simple_banking.dtos.AccessToken;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Issues and verifies HS256 JWTs. Verification is a MAC over the token and a
+ * lookup in an in-memory revocation cache. The cache is not bounded by size,
+ * since evicting a revoked token early would make it valid again; entries
+ * leave it when the token would have expired anyway, so it holds at most the
+ * tokens revoked within one token-ttl.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenService implements ITokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${banking.auth.secret:}")
+    private String secret;
+
+    @Value("${banking.auth.token-ttl:PT1H}")
+    private Duration tokenTtl;
+
+    private SecretKeySpec key;
+    private ThreadLocal<Mac> macs;
+    private Cache<String, Instant> revoked;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("banking.auth.secret is not set; using a random key, so tokens will not survive a restart");
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+        macs = ThreadLocal.withInitial(this::newMac);
+        revoked = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Instant>() {
+                    @Override
+                    public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public AccessToken issue(Long userId) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(tokenTtl);
+        String payload;
+        try {
+            payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(Map.of(
+                    "sub", userId,
+                    "jti", UUID.randomUUID().toString(),
+                    "iat", now.getEpochSecond(),
+                    "exp", expiresAt.getEpochSecond())));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode token payload.", e);
+        }
+        String signingInput = HEADER + "." + payload;
+        return new AccessToken(signingInput + "." + ENCODER.encodeToString(sign(signingInput)), expiresAt);
+    }
+
+    public TokenPrincipal verify(String token) {
+        int firstDot = token != null ? token.indexOf('.') : -1;
+        int lastDot = token != null ? token.lastIndexOf('.') : -1;
+        if (firstDot <= 0 || lastDot == firstDot) {
+            throw unauthorized();
+        }
+
+        // Check the signature before trusting anything in the payload
+        byte[] signature;
+        try {
+            signature = DECODER.decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            throw unauthorized();
+        }
+        if (!token.startsWith(HEADER + ".")
+                || !MessageDigest.isEqual(signature, sign(token.substring(0, lastDot)))) {
+            throw unauthorized();
+        }
+
+        TokenPrincipal principal;
+        try {
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            principal = new TokenPrincipal(
+                    claims.get("sub").asLong(),
+                    claims.get("jti").asText(),
+                    Instant.ofEpochSecond(claims.get("exp").asLong()));
+        } catch (IOException | RuntimeException e) {
+            throw unauthorized();
+        }
+        if (principal.expiresAt().isBefore(Instant.now()) || revoked.getIfPresent(principal.tokenId()) != null) {
+            throw unauthorized();
+        }
+        return principal;
+    }
+
+    public void revoke(String token) {
+        TokenPrincipal principal = verify(token);
+        revoked.put(principal.tokenId(), principal.expiresAt());
+    }
+
+    private byte[] sign(String signingInput) {
+        return macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", e);
+        }
+    }
+
+    private static ResponseStatusException unauthorized() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token.");
+    }
+}
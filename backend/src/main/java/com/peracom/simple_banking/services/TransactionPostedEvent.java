@@ -0,0 +1,25 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import java.time.Instant;
+
+/**
+ * Published inside the transaction that inserts a money movement, whichever
+ * path inserted it. Either account id is null when the movement has no such
+ * side.
+ */
+public record TransactionPostedEvent(
+        TransactionType type, Long fromAccountId, Long toAccountId, Money amount, Instant timestamp) {
+
+    public static TransactionPostedEvent of(Transaction transaction) {
+        return new TransactionPostedEvent(transaction.getType(), idOf(transaction.getFromAccount()),
+                idOf(transaction.getToAccount()), transaction.getAmount(), transaction.getTimestamp());
+    }
+
+    private static Long idOf(Account account) {
+        return account != null ? account.getId() : null;
+    }
+}
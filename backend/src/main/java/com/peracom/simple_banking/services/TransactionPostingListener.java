@@ -0,0 +1,24 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.model.Transaction;
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on {@link Transaction} that publishes a
+ * {@link TransactionPostedEvent} for every inserted movement. The direct,
+ * batched, event-sourced and import paths all insert through here, so none
+ * of them has to publish it; the in-memory ledger's journal inserts through
+ * JDBC and publishes its own. Instantiated by Hibernate through Spring.
+ */
+@RequiredArgsConstructor
+public class TransactionPostingListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    void onPosted(Transaction transaction) {
+        eventPublisher.publishEvent(TransactionPostedEvent.of(transaction));
+    }
+}
@@ -1,94 +1,181 @@
 package com.peracom.simple_banking.services;
 
+import com.peracom.simple_banking.dtos.BatchItemRequest;
+import com.peracom.simple_banking.dtos.BatchItemResult;
+import com.peracom.simple_banking.dtos.BatchMode;
+import com.peracom.simple_banking.dtos.BatchTransactionRequest;
+import com.peracom.simple_banking.dtos.BatchTransactionResponse;
 import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransactionPage;
+import com.peracom.simple_banking.dtos.TransactionResponse;
 import com.peracom.simple_banking.dtos.TransferRequest;
 import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.ledger.EventSourcedLedger;
+import com.peracom.simple_banking.ledger.LedgerEngine;
 import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
 import com.peracom.simple_banking.model.Transaction;
 import com.peracom.simple_banking.model.TransactionType;
 import com.peracom.simple_banking.repository.AccountRepository;
 import com.peracom.simple_banking.repository.TransactionRepository;
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService implements ITransactionService {
 
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T00:00:00Z");
+    private static final Comparator<TransactionResponse> PAGE_ORDER = Comparator
+            .comparing(TransactionResponse::getTimestamp)
+            .thenComparing(TransactionResponse::getId)
+            .reversed();
+    private static final Map<TransactionType, String> DEFAULT_DESCRIPTIONS = Map.of(
+            TransactionType.DEPOSIT, "Deposit",
+            TransactionType.WITHDRAW, "Withdrawal",
+            TransactionType.TRANSFER, "Transfer");
+    private static final String DESCRIPTION_TOO_LONG =
+            "Description must be at most " + Transaction.DESCRIPTION_LENGTH + " characters.";
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<LedgerEngine> ledgerEngine;
+    private final ObjectProvider<EventSourcedLedger> eventSourcedLedger;
+    private final ObjectProvider<GroupCommitter> groupCommitter;
+    private final AccountShards accountShards;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IIdempotencyService idempotencyService;
+
+    @Value("${banking.locking.mode:PESSIMISTIC}")
+    private LockMode lockMode;
+
+    @Value("${banking.locking.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${banking.locking.backoff-ms:5}")
+    private long backoffMs;
+
+    @Value("${banking.batch.max-items:10000}")
+    private int maxBatchItems;
 
-    @Transactional
     public Transaction deposit(DepositRequest request) {
         // Validate request
         if (request == null || request.getAccountId() == null || request.getAmount() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Account ID and amount are required.");
         }
 
-        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Deposit amount must be positive.");
         }
 
-        // Get account
-        Account account = accountRepository
-                .findById(request.getAccountId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found."));
+        checkDescription(request.getDescription());
 
-        // Update account balance
-        account.setBalance(account.getBalance().add(request.getAmount()));
-        accountRepository.save(account);
+        LedgerEngine ledger = ledgerEngine.getIfAvailable();
+        if (ledger != null) {
+            return ledger.deposit(request.getAccountId(), request.getAmount(),
+                    request.getDescription() != null ? request.getDescription() : "Deposit");
+        }
 
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setType(TransactionType.DEPOSIT);
-        transaction.setAmount(request.getAmount());
-        transaction.setToAccount(account);
-        transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Deposit");
+        EventSourcedLedger events = eventSourcedLedger.getIfAvailable();
+        if (events != null) {
+            return executeWithRetry(() -> events.deposit(request.getAccountId(), request.getAmount(),
+                    request.getDescription() != null ? request.getDescription() : "Deposit"));
+        }
+
+        return executeSerialized(List.of(request.getAccountId()), () -> {
+            // Get account
+            Account account = loadAccount(request.getAccountId(), "Account not found.");
+
+            // Update account balance
+            account.setBalance(credit(account.getBalance(), request.getAmount()));
+            accountRepository.save(account);
+            eventPublisher.publishEvent(AccountChangedEvent.of(account));
 
-        return transactionRepository.save(transaction);
+            // Create transaction record
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.DEPOSIT);
+            transaction.setAmount(request.getAmount());
+            transaction.setToAccount(account);
+            transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Deposit");
+
+            return transactionRepository.save(transaction);
+        });
     }
 
-    @Transactional
     public Transaction withdraw(WithdrawRequest request) {
         // Validate request
         if (request == null || request.getAccountId() == null || request.getAmount() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Account ID and amount are required.");
         }
 
-        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Withdrawal amount must be positive.");
         }
 
-        // Get account
-        Account account = accountRepository
-                .findById(request.getAccountId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found."));
+        checkDescription(request.getDescription());
+
+        LedgerEngine ledger = ledgerEngine.getIfAvailable();
+        if (ledger != null) {
+            return ledger.withdraw(request.getAccountId(), request.getAmount(),
+                    request.getDescription() != null ? request.getDescription() : "Withdrawal");
+        }
 
-        // Check sufficient balance
-        if (account.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance.");
+        EventSourcedLedger events = eventSourcedLedger.getIfAvailable();
+        if (events != null) {
+            return executeWithRetry(() -> events.withdraw(request.getAccountId(), request.getAmount(),
+                    request.getDescription() != null ? request.getDescription() : "Withdrawal"));
         }
 
-        // Update account balance
-        account.setBalance(account.getBalance().subtract(request.getAmount()));
-        accountRepository.save(account);
+        return executeSerialized(List.of(request.getAccountId()), () -> {
+            // Get account
+            Account account = loadAccount(request.getAccountId(), "Account not found.");
+
+            // Check sufficient balance
+            if (account.getBalance().isLessThan(request.getAmount())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance.");
+            }
+
+            // Update account balance
+            account.setBalance(account.getBalance().minus(request.getAmount()));
+            accountRepository.save(account);
+            eventPublisher.publishEvent(AccountChangedEvent.of(account));
 
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setType(TransactionType.WITHDRAW);
-        transaction.setAmount(request.getAmount());
-        transaction.setFromAccount(account);
-        transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Withdrawal");
+            // Create transaction record
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.WITHDRAW);
+            transaction.setAmount(request.getAmount());
+            transaction.setFromAccount(account);
+            transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Withdrawal");
 
-        return transactionRepository.save(transaction);
+            return transactionRepository.save(transaction);
+        });
     }
 
-    @Transactional
     public Transaction transfer(TransferRequest request) {
         // Validate request
         if (request == null || request.getFromAccountId() == null || request.getToAccountId() == null
@@ -97,48 +184,439 @@ public class TransactionService implements ITransactionService {
                     HttpStatus.BAD_REQUEST, "From account, to account, and amount are required.");
         }
 
-        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Transfer amount must be positive.");
         }
 
+        checkDescription(request.getDescription());
+
         if (request.getFromAccountId().equals(request.getToAccountId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot transfer to the same account.");
         }
 
-        // Get accounts
-        Account fromAccount = accountRepository
-                .findById(request.getFromAccountId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Source account not found."));
+        LedgerEngine ledger = ledgerEngine.getIfAvailable();
+        if (ledger != null) {
+            return ledger.transfer(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                    request.getDescription() != null ? request.getDescription() : "Transfer");
+        }
+
+        EventSourcedLedger events = eventSourcedLedger.getIfAvailable();
+        if (events != null) {
+            return executeWithRetry(() -> events.transfer(request.getFromAccountId(), request.getToAccountId(),
+                    request.getAmount(), request.getDescription() != null ? request.getDescription() : "Transfer"));
+        }
+
+        return executeSerialized(List.of(request.getFromAccountId(), request.getToAccountId()), () -> {
+            // Get accounts, always locking the lower id first so A->B and B->A cannot deadlock
+            Account fromAccount;
+            Account toAccount;
+            if (request.getFromAccountId() < request.getToAccountId()) {
+                fromAccount = loadAccount(request.getFromAccountId(), "Source account not found.");
+                toAccount = loadAccount(request.getToAccountId(), "Destination account not found.");
+            } else {
+                toAccount = loadAccount(request.getToAccountId(), "Destination account not found.");
+                fromAccount = loadAccount(request.getFromAccountId(), "Source account not found.");
+            }
+
+            // Check sufficient balance
+            if (fromAccount.getBalance().isLessThan(request.getAmount())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance in source account.");
+            }
+
+            // Compute both balances before touching either account: a group commit
+            // keeps the shared transaction when an item is rejected, so a half-applied
+            // transfer would be committed
+            Money debited = fromAccount.getBalance().minus(request.getAmount());
+            Money credited = credit(toAccount.getBalance(), request.getAmount());
+            fromAccount.setBalance(debited);
+            toAccount.setBalance(credited);
+
+            accountRepository.save(fromAccount);
+            accountRepository.save(toAccount);
+            eventPublisher.publishEvent(AccountChangedEvent.of(fromAccount));
+            eventPublisher.publishEvent(AccountChangedEvent.of(toAccount));
 
-        Account toAccount = accountRepository
-                .findById(request.getToAccountId())
-                .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination account not found."));
+            // Create transaction record
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.TRANSFER);
+            transaction.setAmount(request.getAmount());
+            transaction.setFromAccount(fromAccount);
+            transaction.setToAccount(toAccount);
+            transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Transfer");
 
-        // Check sufficient balance
-        if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance in source account.");
+            return transactionRepository.save(transaction);
+        });
+    }
+
+    public BatchTransactionResponse executeBatch(BatchTransactionRequest request) {
+        // Validate request
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one batch item is required.");
         }
 
-        // Update account balances
-        fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+        if (request.getItems().size() > maxBatchItems) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "A batch may contain at most " + maxBatchItems + " items.");
+        }
 
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        BatchMode mode = request.getMode() != null ? request.getMode() : BatchMode.ALL_OR_NOTHING;
+        List<BatchItemRequest> items = request.getItems();
 
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setType(TransactionType.TRANSFER);
-        transaction.setAmount(request.getAmount());
-        transaction.setFromAccount(fromAccount);
-        transaction.setToAccount(toAccount);
-        transaction.setDescription(request.getDescription() != null ? request.getDescription() : "Transfer");
+        // Reject malformed items before touching the database
+        String[] errors = new String[items.size()];
+        boolean anyInvalid = false;
+        for (int i = 0; i < items.size(); i++) {
+            errors[i] = validateItem(items.get(i));
+            anyInvalid |= errors[i] != null;
+        }
+        if (anyInvalid && mode == BatchMode.ALL_OR_NOTHING) {
+            return summarize(mode, errors, null);
+        }
+
+        if (ledgerEngine.getIfAvailable() != null) {
+            if (mode == BatchMode.ALL_OR_NOTHING) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "The in-memory ledger only supports BEST_EFFORT batches.");
+            }
+            return applyIndividually(items, errors);
+        }
 
-        return transactionRepository.save(transaction);
+        Set<Long> ids = accountIdsOf(items, errors);
+        return executeSerialized(ids, () -> applyBatch(items, ids, mode, errors.clone()));
     }
 
-    public List<Transaction> getTransactionsForAccount(Long accountId) {
-        return transactionRepository.findByFromAccountIdOrToAccountId(accountId, accountId);
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(
+            Long accountId, String cursor, int limit, Instant from, Instant to, TransactionType type) {
+        KeysetCursor.checkLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Instant cursorTime = after != null ? after.time() : END_OF_TIME;
+        long cursorId = after != null ? after.id() : Long.MAX_VALUE;
+
+        Instant fromTime = from != null ? from : Instant.EPOCH;
+        Instant toTime = to != null ? to : END_OF_TIME;
+        List<TransactionResponse> items = newestFirst(
+                transactionRepository.findDebitPage(
+                        accountId, type, fromTime, toTime, cursorTime, cursorId, Limit.of(limit)),
+                transactionRepository.findCreditPage(
+                        accountId, type, fromTime, toTime, cursorTime, cursorId, Limit.of(limit)),
+                limit);
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            TransactionResponse last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new TransactionPage(items, nextCursor);
+    }
+
+    /**
+     * Merges two pages that are each newest first into one, keeping at most
+     * {@code limit} items.
+     */
+    private static List<TransactionResponse> newestFirst(
+            List<TransactionResponse> debits, List<TransactionResponse> credits, int limit) {
+        List<TransactionResponse> merged = new ArrayList<>(Math.min(limit, debits.size() + credits.size()));
+        int d = 0;
+        int c = 0;
+        while (merged.size() < limit && (d < debits.size() || c < credits.size())) {
+            if (c == credits.size() || (d < debits.size() && PAGE_ORDER.compare(debits.get(d), credits.get(c)) <= 0)) {
+                merged.add(debits.get(d++));
+            } else {
+                merged.add(credits.get(c++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Applies a batch against working copies of the balances, loading every
+     * referenced account with one query. In all-or-nothing mode the first
+     * failure returns before any entity is modified. With the event-sourced
+     * ledger the balances are derived and the movements appended as postings.
+     */
+    private BatchTransactionResponse applyBatch(
+            List<BatchItemRequest> items, Set<Long> ids, BatchMode mode, String[] errors) {
+        EventSourcedLedger events = eventSourcedLedger.getIfAvailable();
+        List<Account> loaded = lockMode == LockMode.PESSIMISTIC || events != null
+                ? accountRepository.findAllByIdForUpdate(ids)
+                : accountRepository.findAllById(ids);
+        Map<Long, Money> derived = events != null ? events.balancesOf(ids) : Map.of();
+        Map<Long, Account> accounts = new HashMap<>();
+        Map<Long, Money> balances = new HashMap<>();
+        for (Account account : loaded) {
+            accounts.put(account.getId(), account);
+            balances.put(account.getId(), events != null ? derived.get(account.getId()) : account.getBalance());
+        }
+
+        Transaction[] transactions = new Transaction[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            BatchItemRequest item = items.get(i);
+            errors[i] = applyItem(item, accounts, balances);
+            if (errors[i] != null) {
+                if (mode == BatchMode.ALL_OR_NOTHING) {
+                    return summarize(mode, errors, null);
+                }
+                continue;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setType(item.getType());
+            transaction.setAmount(item.getAmount());
+            switch (item.getType()) {
+                case DEPOSIT -> transaction.setToAccount(accounts.get(item.getAccountId()));
+                case WITHDRAW -> transaction.setFromAccount(accounts.get(item.getAccountId()));
+                case TRANSFER -> {
+                    transaction.setFromAccount(accounts.get(item.getFromAccountId()));
+                    transaction.setToAccount(accounts.get(item.getToAccountId()));
+                }
+            }
+            transaction.setDescription(item.getDescription() != null
+                    ? item.getDescription()
+                    : DEFAULT_DESCRIPTIONS.get(item.getType()));
+            transactions[i] = transaction;
+        }
+
+        if (events != null) {
+            for (int i = 0; i < transactions.length; i++) {
+                if (transactions[i] != null) {
+                    transactions[i] = events.record(transactions[i]);
+                }
+            }
+            return summarize(mode, errors, transactions);
+        }
+
+        balances.forEach((id, balance) -> {
+            Account account = accounts.get(id);
+            if (!account.getBalance().equals(balance)) {
+                account.setBalance(balance);
+                eventPublisher.publishEvent(AccountChangedEvent.of(account));
+            }
+        });
+        transactionRepository.saveAll(Arrays.stream(transactions).filter(Objects::nonNull).toList());
+        return summarize(mode, errors, transactions);
+    }
+
+    /**
+     * Collects the accounts referenced by the valid items, in ascending order.
+     */
+    private static Set<Long> accountIdsOf(List<BatchItemRequest> items, String[] errors) {
+        Set<Long> ids = new TreeSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] == null) {
+                BatchItemRequest item = items.get(i);
+                Stream.of(item.getAccountId(), item.getFromAccountId(), item.getToAccountId())
+                        .filter(Objects::nonNull)
+                        .forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+
+    private String applyItem(BatchItemRequest item, Map<Long, Account> accounts, Map<Long, Money> balances) {
+        Money amount = item.getAmount();
+        switch (item.getType()) {
+            case DEPOSIT -> {
+                if (!accounts.containsKey(item.getAccountId())) {
+                    return "Account not found.";
+                }
+                if (wouldOverflow(balances.get(item.getAccountId()), amount)) {
+                    return "Amount would overflow the account balance.";
+                }
+                balances.merge(item.getAccountId(), amount, Money::plus);
+            }
+            case WITHDRAW -> {
+                if (!accounts.containsKey(item.getAccountId())) {
+                    return "Account not found.";
+                }
+                if (balances.get(item.getAccountId()).isLessThan(amount)) {
+                    return "Insufficient balance.";
+                }
+                balances.merge(item.getAccountId(), amount, Money::minus);
+            }
+            case TRANSFER -> {
+                if (!accounts.containsKey(item.getFromAccountId())) {
+                    return "Source account not found.";
+                }
+                if (!accounts.containsKey(item.getToAccountId())) {
+                    return "Destination account not found.";
+                }
+                if (balances.get(item.getFromAccountId()).isLessThan(amount)) {
+                    return "Insufficient balance in source account.";
+                }
+                if (wouldOverflow(balances.get(item.getToAccountId()), amount)) {
+                    return "Amount would overflow the account balance.";
+                }
+                balances.merge(item.getFromAccountId(), amount, Money::minus);
+                balances.merge(item.getToAccountId(), amount, Money::plus);
+            }
+        }
+        return null;
+    }
+
+    private String validateItem(BatchItemRequest item) {
+        if (item == null || item.getType() == null || item.getAmount() == null) {
+            return "Type and amount are required.";
+        }
+        if (!item.getAmount().isPositive()) {
+            return "Amount must be positive.";
+        }
+        if (item.getType() == TransactionType.TRANSFER) {
+            if (item.getFromAccountId() == null || item.getToAccountId() == null) {
+                return "From account and to account are required.";
+            }
+            if (item.getFromAccountId().equals(item.getToAccountId())) {
+                return "Cannot transfer to the same account.";
+            }
+        } else if (item.getAccountId() == null) {
+            return "Account ID is required.";
+        }
+        if (!fitsDescription(item.getDescription())) {
+            return DESCRIPTION_TOO_LONG;
+        }
+        return null;
+    }
+
+    /**
+     * Rejects what the {@code transactions} table would, before any ledger
+     * has moved a balance it could not then persist.
+     */
+    private static void checkDescription(String description) {
+        if (!fitsDescription(description)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, DESCRIPTION_TOO_LONG);
+        }
+    }
+
+    private static boolean fitsDescription(String description) {
+        return description == null
+                || description.codePointCount(0, description.length()) <= Transaction.DESCRIPTION_LENGTH;
+    }
+
+    /**
+     * Applies valid items one at a time through the regular single-item path.
+     */
+    private BatchTransactionResponse applyIndividually(List<BatchItemRequest> items, String[] errors) {
+        Transaction[] transactions = new Transaction[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            BatchItemRequest item = items.get(i);
+            try {
+                transactions[i] = switch (item.getType()) {
+                    case DEPOSIT -> {
+                        DepositRequest deposit = new DepositRequest();
+                        deposit.setAccountId(item.getAccountId());
+                        deposit.setAmount(item.getAmount());
+                        deposit.setDescription(item.getDescription());
+                        yield deposit(deposit);
+                    }
+                    case WITHDRAW -> {
+                        WithdrawRequest withdrawal = new WithdrawRequest();
+                        withdrawal.setAccountId(item.getAccountId());
+                        withdrawal.setAmount(item.getAmount());
+                        withdrawal.setDescription(item.getDescription());
+                        yield withdraw(withdrawal);
+                    }
+                    case TRANSFER -> {
+                        TransferRequest transfer = new TransferRequest();
+                        transfer.setFromAccountId(item.getFromAccountId());
+                        transfer.setToAccountId(item.getToAccountId());
+                        transfer.setAmount(item.getAmount());
+                        transfer.setDescription(item.getDescription());
+                        yield transfer(transfer);
+                    }
+                };
+            } catch (ResponseStatusException e) {
+                errors[i] = e.getReason();
+            }
+        }
+        return summarize(BatchMode.BEST_EFFORT, errors, transactions);
+    }
+
+    private BatchTransactionResponse summarize(BatchMode mode, String[] errors, Transaction[] transactions) {
+        List<BatchItemResult> results = new ArrayList<>(errors.length);
+        int applied = 0;
+        int rejected = 0;
+        for (int i = 0; i < errors.length; i++) {
+            if (transactions != null && transactions[i] != null) {
+                applied++;
+                results.add(new BatchItemResult(i, BatchItemResult.Status.APPLIED, transactions[i].getId(), null));
+            } else if (errors[i] != null) {
+                rejected++;
+                results.add(new BatchItemResult(i, BatchItemResult.Status.REJECTED, null, errors[i]));
+            } else {
+                results.add(new BatchItemResult(i, BatchItemResult.Status.NOT_APPLIED, null, null));
+            }
+        }
+        return new BatchTransactionResponse(mode, applied, rejected, results);
+    }
+
+    private static Money credit(Money balance, Money amount) {
+        if (wouldOverflow(balance, amount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount would overflow the account balance.");
+        }
+        return balance.plus(amount);
+    }
+
+    private static boolean wouldOverflow(Money balance, Money amount) {
+        return balance.minorUnits() > Long.MAX_VALUE - amount.minorUnits();
+    }
+
+    private Account loadAccount(Long id, String notFoundMessage) {
+        Optional<Account> account = lockMode == LockMode.PESSIMISTIC
+                ? accountRepository.findByIdForUpdate(id)
+                : accountRepository.findById(id);
+        return account.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage));
+    }
+
+    /**
+     * Runs the work through {@link #executeWithRetry}, on the accounts' shards
+     * when updates are serialized in process.
+     */
+    private <T> T executeSerialized(Collection<Long> accountIds, Supplier<T> work) {
+        // The key is claimed on the thread that is executing it, before the work moves to a shard
+        Supplier<T> recorded = idempotencyService.recordingKey(work);
+        if (lockMode == LockMode.SHARDED) {
+            return accountShards.execute(accountIds, () -> executeWithRetry(recorded));
+        }
+        return executeWithRetry(recorded);
+    }
+
+    /**
+     * Runs the work in its own database transaction, or in the next group commit
+     * when enabled, retrying with jittered exponential backoff when it loses a
+     * version check or lock wait. An idempotency key being executed is stored
+     * in that same transaction.
+     */
+    private <T> T executeWithRetry(Supplier<T> work) {
+        GroupCommitter committer = groupCommitter.getIfAvailable();
+        Supplier<T> recorded = idempotencyService.recordingKey(work);
+        for (int attempt = 1;; attempt++) {
+            try {
+                return committer != null
+                        ? committer.execute(recorded)
+                        : transactionTemplate.execute(status -> recorded.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ResponseStatusException(
+                            HttpStatus.CONFLICT, "Account was modified concurrently, please retry.", e);
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while retrying.", e);
+        }
     }
 }
@@ -0,0 +1,427 @@
+package com.peracom.simple_banking.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.peracom.simple_banking.dtos.ImportFormat;
+import com.peracom.simple_banking.dtos.UserImportRow;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.AccountStatus;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Imports users chunk by chunk: each chunk is validated, checked against the
+ * existing emails with one query, has its passwords hashed in parallel and is
+ * saved in one transaction, where the sequence-generated ids let Hibernate
+ * batch the inserts. Only the current chunk is held in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService implements IUserImportService {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}");
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final IPasswordHashingService passwordHashingService;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${banking.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${banking.import.directory:./data/import}")
+    private String importDirectory;
+
+    public void importUsers(InputStream in, ImportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource rows = format == ImportFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        ImportReport report = new ImportReport(out);
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = rows.next()) != null) {
+            report.rows++;
+            if (row.error() != null) {
+                report.reject(row, row.error());
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        report.finish(elapsedNanos);
+        log.info("Imported {} of {} users ({} accounts) in {} ms", report.imported, report.rows,
+                report.accountsOpened, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    public InputStream openImportFile(String path) throws IOException {
+        Path directory = Path.of(importDirectory).toAbsolutePath().normalize();
+        Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import files must be in the import directory.");
+        }
+        try {
+            return Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import file not found.");
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReport report) throws IOException {
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            String error = validate(row.data());
+            if (error == null && !emails.add(row.data().getEmail())) {
+                error = "Duplicate email in the import.";
+            }
+            if (error != null) {
+                report.reject(row, error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            report.flush();
+            return;
+        }
+
+        // Earlier chunks are committed by now, so this also catches duplicates across chunks
+        Set<String> existing = userRepository.findExistingEmails(emails);
+        List<ImportRow> fresh = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            if (existing.contains(row.data().getEmail())) {
+                report.reject(row, "Email already registered.");
+            } else {
+                fresh.add(row);
+            }
+        }
+
+        List<String> passwords = new ArrayList<>();
+        for (ImportRow row : fresh) {
+            if (row.data().getPasswordHash() == null) {
+                passwords.add(row.data().getPassword());
+            }
+        }
+        List<String> hashes = passwords.isEmpty() ? List.of() : passwordHashingService.hashAll(passwords);
+
+        List<NewUser> users = new ArrayList<>(fresh.size());
+        int nextHash = 0;
+        for (ImportRow row : fresh) {
+            UserImportRow data = row.data();
+            String hash = data.getPasswordHash() != null ? data.getPasswordHash() : hashes.get(nextHash++);
+            // Numbered before the transaction opens, since leasing a block of numbers takes a connection of its own
+            String accountNumber = data.getOpeningBalance() != null ? accountNumberGenerator.next() : null;
+            users.add(new NewUser(row, hash, accountNumber));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(users));
+            for (NewUser user : users) {
+                report.imported(user);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A registration raced the chunk for one of its emails; find it by saving row by row
+            for (NewUser user : users) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save(List.of(user)));
+                    report.imported(user);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    report.reject(user.row(), rejection(user, rowFailure));
+                }
+            }
+        }
+        report.flush();
+    }
+
+    /**
+     * Explains why the row failed on its own. Only a clash on the email is the
+     * race the row-by-row retry looks for; any other violation is reported
+     * with the constraint that failed.
+     */
+    private String rejection(NewUser user, DataIntegrityViolationException e) {
+        if (!userRepository.findExistingEmails(Set.of(user.row().data().getEmail())).isEmpty()) {
+            return "Email already registered.";
+        }
+        log.warn("Failed to import row {}", user.row().number(), e);
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        return constraint != null ? "Row violates constraint " + constraint + "." : "Row could not be saved.";
+    }
+
+    /**
+     * Builds the entities afresh on every attempt, since a rolled-back save
+     * leaves generated ids behind on the ones it touched.
+     */
+    private void save(List<NewUser> newUsers) {
+        List<User> users = new ArrayList<>(newUsers.size());
+        List<Account> accounts = new ArrayList<>();
+        List<Transaction> openings = new ArrayList<>();
+        for (NewUser newUser : newUsers) {
+            UserImportRow data = newUser.row().data();
+            User user = new User();
+            user.setName(data.getName());
+            user.setEmail(data.getEmail());
+            user.setPasswordHash(newUser.passwordHash());
+            users.add(user);
+
+            if (newUser.accountNumber() != null) {
+                Account account = new Account();
+                account.setAccountNumber(newUser.accountNumber());
+                account.setUser(user);
+                account.setBalance(data.getOpeningBalance());
+                account.setStatus(AccountStatus.ACTIVE);
+                accounts.add(account);
+
+                // Record the opening balance so the transactions table fully explains every balance
+                if (account.getBalance().isPositive()) {
+                    Transaction opening = new Transaction();
+                    opening.setType(TransactionType.DEPOSIT);
+                    opening.setAmount(account.getBalance());
+                    opening.setToAccount(account);
+                    opening.setDescription("Opening balance");
+                    openings.add(opening);
+                }
+            }
+        }
+        userRepository.saveAll(users);
+        accountRepository.saveAll(accounts);
+        transactionRepository.saveAll(openings);
+        accounts.forEach(account -> eventPublisher.publishEvent(AccountChangedEvent.of(account)));
+    }
+
+    /**
+     * Normalizes the row in place and returns why it cannot be imported, or
+     * {@code null}.
+     */
+    private static String validate(UserImportRow row) {
+        row.setName(trimToNull(row.getName()));
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setPassword(row.getPassword() == null || row.getPassword().isEmpty() ? null : row.getPassword());
+        row.setPasswordHash(trimToNull(row.getPasswordHash()));
+        if (row.getName() == null || row.getEmail() == null) {
+            return "Name and email are required.";
+        }
+        row.setEmail(row.getEmail().toLowerCase(Locale.ROOT));
+        if ((row.getPassword() == null) == (row.getPasswordHash() == null)) {
+            return "Exactly one of password and password hash is required.";
+        }
+        if (row.getPasswordHash() != null && !BCRYPT_HASH.matcher(row.getPasswordHash()).matches()) {
+            return "Password hash must be a BCrypt hash.";
+        }
+        if (row.getOpeningBalance() != null && row.getOpeningBalance().isNegative()) {
+            return "Initial balance cannot be negative.";
+        }
+        return null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * A parsed input row, numbered from 1 in input order; {@code error} is set
+     * instead of {@code data} when the row could not be parsed.
+     */
+    private record ImportRow(long number, UserImportRow data, String error) {
+    }
+
+    private record NewUser(ImportRow row, String passwordHash, String accountNumber) {
+    }
+
+    private interface RowSource {
+        /**
+         * @return the next row, or {@code null} at the end of the input
+         */
+        ImportRow next() throws IOException;
+    }
+
+    private static final class CsvRowSource implements RowSource {
+        private static final List<String> COLUMNS =
+                List.of("name", "email", "password", "password_hash", "opening_balance");
+
+        private final CsvRecordReader records;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long number;
+
+        private CsvRowSource(BufferedReader reader) throws IOException {
+            this.records = new CsvRecordReader(reader);
+            List<String> header = records.next();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                    if (COLUMNS.contains(column)) {
+                        columns.putIfAbsent(column, i);
+                    }
+                }
+            }
+            if (!columns.containsKey("name") || !columns.containsKey("email")) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "The CSV header must name the name and email columns.");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            number++;
+            UserImportRow row = new UserImportRow();
+            row.setName(field(fields, "name"));
+            row.setEmail(field(fields, "email"));
+            row.setPassword(field(fields, "password"));
+            row.setPasswordHash(field(fields, "password_hash"));
+            String openingBalance = trimToNull(field(fields, "opening_balance"));
+            if (openingBalance != null) {
+                try {
+                    row.setOpeningBalance(Money.parse(openingBalance));
+                } catch (NumberFormatException | ArithmeticException e) {
+                    return new ImportRow(number, null,
+                            "Opening balance must be a number with at most two decimal places.");
+                }
+            }
+            return new ImportRow(number, row, null);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectReader rowReader = objectMapper.readerFor(UserImportRow.class);
+        private long number;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            number++;
+            try {
+                UserImportRow row = rowReader.readValue(line);
+                // A literal null parses without error
+                return row != null
+                        ? new ImportRow(number, row, null)
+                        : new ImportRow(number, null, "Malformed row: expected an object.");
+            } catch (JsonProcessingException e) {
+                return new ImportRow(number, null, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private final class ImportReport {
+        private final JsonGenerator generator;
+        private long rows;
+        private long imported;
+        private long rejected;
+        private long accountsOpened;
+
+        private ImportReport(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        private void imported(NewUser user) {
+            imported++;
+            if (user.accountNumber() != null) {
+                accountsOpened++;
+            }
+        }
+
+        private void reject(ImportRow row, String error) throws IOException {
+            rejected++;
+            generator.writeStartObject();
+            generator.writeNumberField("row", row.number());
+            if (row.data() != null && row.data().getEmail() != null) {
+                generator.writeStringField("email", row.data().getEmail());
+            }
+            generator.writeStringField("error", error);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void flush() throws IOException {
+            generator.flush();
+        }
+
+        private void finish(long elapsedNanos) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("rows", rows);
+            generator.writeNumberField("imported", imported);
+            generator.writeNumberField("rejected", rejected);
+            generator.writeNumberField("accountsOpened", accountsOpened);
+            generator.writeNumberField("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            generator.writeNumberField("rowsPerSecond",
+                    elapsedNanos > 0 ? Math.round(rows * 1e9 / elapsedNanos) : 0);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+}
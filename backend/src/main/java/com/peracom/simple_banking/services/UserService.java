@@ -1,24 +1,37 @@
 package com.peracom.simple_banking.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.dtos.CursorPage;
 import com.peracom.simple_banking.dtos.LoginRequest;
 import com.peracom.simple_banking.dtos.RegisterRequest;
+import com.peracom.simple_banking.dtos.UserFilter;
+import com.peracom.simple_banking.dtos.UserResponse;
+import com.peracom.simple_banking.metrics.StatementCounter;
 import com.peracom.simple_banking.model.User;
 import com.peracom.simple_banking.repository.UserRepository;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService implements IUserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final IPasswordHashingService passwordHashingService;
+    private final ObjectMapper objectMapper;
+    private final Executor applicationTaskExecutor;
 
-    public User register(RegisterRequest request) {
+    public CompletableFuture<User> register(RegisterRequest request) {
         if (request == null
                 || isBlank(request.getName())
                 || isBlank(request.getEmail())
@@ -30,14 +43,17 @@ public class UserService implements IUserService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered.");
         }
 
-        User user = new User();
-        user.setName(request.getName().trim());
-        user.setEmail(request.getEmail().trim().toLowerCase());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-        return userRepository.save(user);
+        // Saved on the task executor: the hashing pool has a thread per core and must not wait on the database
+        return StatementCounter.thenApplyAsync(passwordHashingService.hash(request.getPassword()), hash -> {
+            User user = new User();
+            user.setName(request.getName().trim());
+            user.setEmail(request.getEmail().trim().toLowerCase());
+            user.setPasswordHash(hash);
+            return userRepository.save(user);
+        }, applicationTaskExecutor);
     }
 
-    public User login(LoginRequest request) {
+    public CompletableFuture<User> login(LoginRequest request) {
         if (request == null || isBlank(request.getEmail()) || isBlank(request.getPassword())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email and password are required.");
         }
@@ -48,15 +64,40 @@ public class UserService implements IUserService {
                         () -> new ResponseStatusException(
                                 HttpStatus.UNAUTHORIZED, "Invalid email or password."));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password.");
+        return passwordHashingService.matches(request.getPassword(), user.getPasswordHash()).thenApply(matches -> {
+            if (!matches) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password.");
+            }
+            if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+                rehash(user.getId(), request.getPassword());
+            }
+            return user;
+        });
+    }
+
+    public CursorPage<UserResponse> getUserPage(UserFilter filter, Sort.Direction direction, String cursor, int limit) {
+        KeysetCursor.checkLimit(limit);
+        List<UserResponse> users = findUserPage(filter, direction, KeysetCursor.decode(cursor), limit);
+        String nextCursor = null;
+        if (users.size() == limit) {
+            nextCursor = position(users.get(users.size() - 1)).encode();
         }
+        return new CursorPage<>(users, nextCursor);
+    }
+
+    public void exportUsers(UserFilter filter, OutputStream out) throws IOException {
+        KeysetExport.write(objectMapper, out,
+                (after, limit) -> findUserPage(filter, Sort.Direction.DESC, after, limit), UserService::position);
+    }
 
-        return user;
+    private List<UserResponse> findUserPage(UserFilter filter, Sort.Direction direction, KeysetCursor after, int limit) {
+        return after == null
+                ? userRepository.findUserPage(filter, direction, null, null, limit)
+                : userRepository.findUserPage(filter, direction, after.time(), after.id(), limit);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    private static KeysetCursor position(UserResponse user) {
+        return new KeysetCursor(user.getCreatedAt(), user.getId());
     }
 
     public void deleteUser(Long id) {
@@ -66,6 +107,24 @@ public class UserService implements IUserService {
         userRepository.deleteById(id);
     }
 
+    /**
+     * Replaces a hash made at an older cost in the background; the login does
+     * not wait for it, and it is simply retried on a later login if the
+     * hashing pool is busy.
+     */
+    private void rehash(Long userId, String password) {
+        try {
+            StatementCounter.thenApplyAsync(passwordHashingService.hash(password),
+                    hash -> userRepository.updatePasswordHash(userId, hash), applicationTaskExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Failed to rehash password for user {}", userId, e);
+                        return null;
+                    });
+        } catch (ResponseStatusException e) {
+            log.debug("Hashing pool busy, skipping rehash for user {}", userId);
+        }
+    }
+
     private boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
@@ -0,0 +1,86 @@
+package com.peracom.simple_banking.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialization of detached entity graphs with the application's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JacksonConfigBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Transaction transaction;
+    private List<Account> accounts;
+    private List<Transaction> history;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setCreatedAt(Instant.now());
+
+        accounts = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            Account account = new Account();
+            account.setId(i);
+            account.setAccountNumber("ACCT-" + i);
+            account.setUser(user);
+            account.setBalance(Money.parse("12345.67"));
+            account.setCreatedAt(Instant.now());
+            account.setVersion(3L);
+            accounts.add(account);
+        }
+
+        history = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            Transaction tx = new Transaction();
+            tx.setId(i);
+            tx.setType(TransactionType.TRANSFER);
+            tx.setAmount(Money.parse("10.50"));
+            tx.setFromAccount(accounts.get(0));
+            tx.setToAccount(accounts.get((int) i % accounts.size()));
+            tx.setTimestamp(Instant.now());
+            tx.setDescription("Transfer");
+            history.add(tx);
+        }
+        transaction = history.get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] serializeAccountList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accounts);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionHistory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(history);
+    }
+}
@@ -0,0 +1,49 @@
+package com.peracom.simple_banking.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.model.Money;
+import org.junit.jupiter.api.Test;
+
+class MoneyModuleTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new MoneyModule());
+
+    @Test
+    void writesAPlainNumberWithTwoPlaces() throws Exception {
+        assertEquals("100.50", objectMapper.writeValueAsString(Money.parse("100.5")));
+        assertEquals("-0.05", objectMapper.writeValueAsString(Money.ofMinor(-5)));
+        assertEquals("[0.00]", objectMapper.writeValueAsString(new Money[] {Money.ZERO}));
+    }
+
+    @Test
+    void readsNumbersAndNumericStrings() throws Exception {
+        assertEquals(Money.parse("100.50"), amountOf("100.5"));
+        assertEquals(Money.parse("100.00"), amountOf("100"));
+        assertEquals(Money.parse("-12.34"), amountOf("\"-12.34\""));
+        assertEquals(Money.parse("100.00"), amountOf("1E2"));
+    }
+
+    @Test
+    void roundTrips() throws Exception {
+        Money money = Money.parse("-92233720368547758.07");
+        assertEquals(money, objectMapper.readValue(objectMapper.writeValueAsString(money), Money.class));
+    }
+
+    @Test
+    void rejectsAmountsItCannotHoldExactly() {
+        assertThrows(InvalidFormatException.class, () -> amountOf("12.345"));
+        assertThrows(InvalidFormatException.class, () -> amountOf("92233720368547758.08"));
+        assertThrows(InvalidFormatException.class, () -> amountOf("\"ten\""));
+        assertThrows(MismatchedInputException.class, () -> amountOf("true"));
+    }
+
+    private Money amountOf(String json) throws Exception {
+        return objectMapper.readValue("{\"accountId\":1,\"amount\":" + json + "}", DepositRequest.class).getAmount();
+    }
+}
@@ -0,0 +1,168 @@
+package com.peracom.simple_banking.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Role;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.ITokenService;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:token_filter"
+})
+@AutoConfigureMockMvc
+class TokenAuthenticationFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ITokenService tokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private User owner;
+    private Account account;
+    private String ownerToken;
+    private String otherToken;
+
+    @BeforeEach
+    void setUp() {
+        owner = newUser("owner");
+        account = new Account();
+        account.setUser(owner);
+        account.setAccountNumber("AUTH-" + UUID.randomUUID());
+        account = accountRepository.save(account);
+        ownerToken = "Bearer " + tokenService.issue(owner.getId()).getToken();
+        otherToken = "Bearer " + tokenService.issue(newUser("other").getId()).getToken();
+    }
+
+    @Test
+    void protectedEndpointsRequireAValidToken() throws Exception {
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer x.y.z"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/users/{id}", owner.getId()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/users/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginStaysPublic() throws Exception {
+        // Rejected by the controller for the missing fields, not by the filter
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void requestsOnAnAccountMustComeFromItsOwner() throws Exception {
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/transactions/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/transactions/withdraw")
+                        .header(HttpHeaders.AUTHORIZATION, otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountId\":" + account.getId() + ",\"amount\":1.00}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/accounts/user/{userId}", owner.getId()).header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/users/{id}", owner.getId()).header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void movementStatusIsOnlyShownToTheOwnerOfItsAccount() throws Exception {
+        MvcResult accepted = mockMvc.perform(post("/api/transactions/async/deposit")
+                        .header(HttpHeaders.AUTHORIZATION, ownerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountId\":" + account.getId() + ",\"amount\":1.00}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String location = mockMvc.perform(asyncDispatch(accepted))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(get(location).header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(location).header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void operationsOnEveryUserRequireTheAdminRole() throws Exception {
+        User admin = newUser("admin");
+        admin.setRole(Role.ADMIN);
+        String adminToken = "Bearer " + tokenService.issue(userRepository.save(admin).getId()).getToken();
+
+        mockMvc.perform(post("/api/users/import").header(HttpHeaders.AUTHORIZATION, ownerToken)
+                        .contentType("text/csv").content("name,email,password\n"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/import").param("path", "users.csv")
+                        .header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/import").header(HttpHeaders.AUTHORIZATION, adminToken)
+                        .contentType("text/csv").content("name,email,password\n"))
+                .andExpect(status().isOk());
+        for (String uri : List.of("/api/users", "/api/users/export", "/api/accounts", "/api/accounts/export")) {
+            mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, ownerToken))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, adminToken))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/reports/daily").param("from", "2024-01-01").param("to", "2024-01-31")
+                        .header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/reports/daily").param("from", "2024-01-01").param("to", "2024-01-31")
+                        .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/reports/rollups/backfill").header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/reports/reconciliation").header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void loggedOutTokensAreRejected() throws Exception {
+        mockMvc.perform(post("/api/users/logout").header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).header(HttpHeaders.AUTHORIZATION, ownerToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,181 @@
+package com.peracom.simple_banking.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.peracom.simple_banking.BenchmarkContexts;
+import com.peracom.simple_banking.config.MoneyModule;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.IAccountService;
+import com.peracom.simple_banking.services.ITransactionService;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One list request, query plus serialization, against H2: the entity graphs
+ * serialized through the Hibernate6Module that the controllers used to
+ * return, versus the response DTOs selected directly. Run with
+ * {@code -Djmh.args="ReadEndpointsBenchmark -prof gc"} for the bytes
+ * allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadEndpointsBenchmark {
+
+    private static final int ACCOUNTS = 50;
+    private static final int PAGE_SIZE = 50;
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T00:00:00Z");
+    private static final List<String> ALL_TYPES =
+            Arrays.stream(TransactionType.values()).map(Enum::name).toList();
+
+    // The page query as it was before the response projections
+    private static final String ENTITY_PAGE = """
+            SELECT * FROM (
+                (SELECT t.* FROM transactions t
+                 WHERE t.from_account_id = :accountId
+                   AND t.type IN (:types)
+                   AND t.timestamp >= :fromTime AND t.timestamp < :toTime
+                   AND (t.timestamp < :cursorTime OR (t.timestamp = :cursorTime AND t.id < :cursorId))
+                 ORDER BY t.timestamp DESC, t.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT t.* FROM transactions t
+                 WHERE t.to_account_id = :accountId
+                   AND (t.from_account_id IS NULL OR t.from_account_id <> :accountId)
+                   AND t.type IN (:types)
+                   AND t.timestamp >= :fromTime AND t.timestamp < :toTime
+                   AND (t.timestamp < :cursorTime OR (t.timestamp = :cursorTime AND t.id < :cursorId))
+                 ORDER BY t.timestamp DESC, t.id DESC
+                 LIMIT :limit)
+            ) page
+            ORDER BY page.timestamp DESC, page.id DESC
+            LIMIT :limit
+            """;
+
+    private ConfigurableApplicationContext context;
+    private IAccountService accountService;
+    private ITransactionService transactionService;
+    private AccountRepository accountRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private ObjectMapper objectMapper;
+    private ObjectMapper hibernateObjectMapper;
+    private Long userId;
+    private Long accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Uncached, so that every request runs its query
+        context = BenchmarkContexts.start("jmh_reads", "spring.cache.type=none");
+        accountService = context.getBean(IAccountService.class);
+        transactionService = context.getBean(ITransactionService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnly.setReadOnly(true);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        hibernateObjectMapper = new ObjectMapper();
+        hibernateObjectMapper.registerModule(new JavaTimeModule());
+        hibernateObjectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Hibernate6Module hibernate6Module = new Hibernate6Module();
+        hibernate6Module.configure(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
+        hibernateObjectMapper.registerModule(hibernate6Module);
+        hibernateObjectMapper.registerModule(new MoneyModule());
+
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPasswordHash("x");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("JMH-" + i);
+            account.setBalance(Money.parse("1000.00"));
+            accounts.add(account);
+        }
+        accounts = accountRepository.saveAll(accounts);
+        accountId = accounts.get(0).getId();
+
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE * 4; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.TRANSFER);
+            transaction.setAmount(Money.parse("1.00"));
+            transaction.setFromAccount(accounts.get(i % 2 == 0 ? 0 : 1 + i % (ACCOUNTS - 1)));
+            transaction.setToAccount(accounts.get(i % 2 == 0 ? 1 + i % (ACCOUNTS - 1) : 0));
+            transaction.setDescription("Benchmark transfer");
+            history.add(transaction);
+        }
+        context.getBean(TransactionRepository.class).saveAll(history);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] accountsByUserAsEntities() {
+        return readOnly.execute(status -> write(hibernateObjectMapper, accountRepository.findByUser_Id(userId)));
+    }
+
+    @Benchmark
+    public byte[] accountsByUserAsResponses() {
+        return write(objectMapper, accountService.getAccountsByUser(userId));
+    }
+
+    @Benchmark
+    public byte[] transactionPageAsEntities() {
+        return readOnly.execute(status -> write(hibernateObjectMapper, entityManager
+                .createNativeQuery(ENTITY_PAGE, Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("types", ALL_TYPES)
+                .setParameter("fromTime", Instant.EPOCH)
+                .setParameter("toTime", END_OF_TIME)
+                .setParameter("cursorTime", END_OF_TIME)
+                .setParameter("cursorId", Long.MAX_VALUE)
+                .setParameter("limit", PAGE_SIZE)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public byte[] transactionPageAsResponses() {
+        return write(objectMapper, transactionService.getTransactionPage(accountId, null, PAGE_SIZE, null, null, null));
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
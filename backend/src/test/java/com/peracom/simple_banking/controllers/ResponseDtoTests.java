@@ -0,0 +1,144 @@
+package com.peracom.simple_banking.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.IIdempotencyService;
+import com.peracom.simple_banking.services.ITokenService;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Write endpoints answer with response DTOs: no entity, password hash or
+ * missing account number reaches the client.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:response_dtos",
+        "banking.password.cost=4"
+})
+@AutoConfigureMockMvc
+class ResponseDtoTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ITokenService tokenService;
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void registerAndLoginReturnTheUserWithoutItsPasswordHash() throws Exception {
+        String email = "dto-" + UUID.randomUUID() + "@example.com";
+        String credentials = "\"email\":\"" + email + "\",\"password\":\"secret\"";
+
+        MvcResult registered = mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Dto\"," + credentials + "}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(registered))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.email").value(email))
+                .andExpect(jsonPath("$.createdAt").exists())
+                .andExpect(jsonPath("$.passwordHash").doesNotExist());
+
+        MvcResult loggedIn = mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" + credentials + "}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(loggedIn))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString())
+                .andExpect(jsonPath("$.user.email").value(email))
+                .andExpect(jsonPath("$.user.passwordHash").doesNotExist());
+    }
+
+    @Test
+    void createAccountBindsTheRequestAndChecksItsOwner() throws Exception {
+        User owner = newUser("owner");
+        String ownerToken = "Bearer " + tokenService.issue(owner.getId()).getToken();
+        String otherToken = "Bearer " + tokenService.issue(newUser("other").getId()).getToken();
+        String body = "{\"userId\":" + owner.getId() + ",\"balance\":10.00}";
+
+        mockMvc.perform(post("/api/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, ownerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(owner.getId()))
+                .andExpect(jsonPath("$.accountNumber").isString())
+                .andExpect(jsonPath("$.balance").value(10.00))
+                .andExpect(jsonPath("$.user").doesNotExist());
+        mockMvc.perform(post("/api/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void movementResponsesCarryAccountNumbersOfUnloadedAccounts() {
+        User owner = newUser("numbers");
+        Account from = openAccount(owner);
+        Account to = openAccount(owner);
+
+        // As the in-memory ledger acknowledges a movement: references only, nothing loaded
+        TransactionResponse response = idempotencyService.execute(null, "transfer", null, () -> {
+            Transaction transaction = new Transaction();
+            transaction.setId(1L);
+            transaction.setType(TransactionType.TRANSFER);
+            transaction.setAmount(Money.parse("1.00"));
+            transaction.setFromAccount(accountRepository.getReferenceById(from.getId()));
+            transaction.setToAccount(accountRepository.getReferenceById(to.getId()));
+            return transaction;
+        });
+
+        assertEquals(from.getAccountNumber(), response.getFromAccountNumber());
+        assertEquals(to.getAccountNumber(), response.getToAccountNumber());
+    }
+
+    private Account openAccount(User owner) {
+        Account account = new Account();
+        account.setUser(owner);
+        account.setAccountNumber("DTO-" + UUID.randomUUID());
+        return accountRepository.save(account);
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        return userRepository.save(user);
+    }
+}
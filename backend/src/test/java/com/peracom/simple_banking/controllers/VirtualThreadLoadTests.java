@@ -0,0 +1,205 @@
+package com.peracom.simple_banking.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.SimpleBankingApplication;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.ITokenService;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Drives a deposit and account-read mix through {@link TransactionController}
+ * and {@link AccountController} over HTTP, with every SQL statement delayed to
+ * mimic a slow database, on platform threads and on virtual threads. The
+ * connection pool is sized above the Tomcat thread cap so that request threads
+ * are the bottleneck. Run with {@code mvn test -Pbenchmark} on Java 21.
+ */
+@Slf4j
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadTests {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS = 20_000;
+    private static final long STATEMENT_LATENCY_MS = 10;
+
+    @ParameterizedTest(name = "virtual threads {0}")
+    @ValueSource(booleans = {false, true})
+    void mixedLoadUnderSlowDatabase(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SimpleBankingApplication.class, SlowDatabase.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load_" + virtualThreads + ";LOCK_TIMEOUT=10000",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+            List<Account> accounts = createAccounts(context);
+            List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+            String authorization = "Bearer " + context.getBean(ITokenService.class)
+                    .issue(accounts.get(0).getUser().getId()).getToken();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger failures = new AtomicInteger();
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                clients.submit(() -> {
+                    Long accountId = accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+                    HttpRequest request = index % 2 == 0
+                            ? HttpRequest.newBuilder(URI.create(base + "/api/transactions/deposit"))
+                                    .header("Content-Type", "application/json")
+                                    .header("Authorization", authorization)
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"accountId\":" + accountId + ",\"amount\":1.00}"))
+                                    .build()
+                            : HttpRequest.newBuilder(URI.create(base + "/api/accounts/" + accountId))
+                                    .header("Authorization", authorization)
+                                    .GET()
+                                    .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(10, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            log.info("virtual={} {} requests ({} failed) in {} s = {} req/s, p50 {} ms p99 {} ms p99.9 {} ms",
+                    virtualThreads, REQUESTS, failures.get(), String.format("%.2f", seconds),
+                    String.format("%.0f", REQUESTS / seconds), String.format("%.1f", percentile(latencies, 0.50)),
+                    String.format("%.1f", percentile(latencies, 0.99)),
+                    String.format("%.1f", percentile(latencies, 0.999)));
+            assertTrue(failures.get() < REQUESTS / 100, "More than 1% of requests failed");
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1] / 1e6;
+    }
+
+    private List<Account> createAccounts(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setName("Load");
+        user.setEmail("load@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("LOAD-" + i);
+            accounts.add(account);
+        }
+        return accountRepository.saveAll(accounts);
+    }
+
+    /**
+     * Delays every statement execution by {@link #STATEMENT_LATENCY_MS} while
+     * the connection is held, like a round-trip to a remote database would.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowDatabase {
+
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class SlowDataSource extends DelegatingDataSource {
+
+        private SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, super.getConnection());
+        }
+
+        private static <T> T wrap(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            Thread.sleep(STATEMENT_LATENCY_MS);
+                        }
+                        Object result = invoke(method, target, args);
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            return wrap(castType(method.getReturnType()), result);
+                        }
+                        return result;
+                    }));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<Object> castType(Class<?> type) {
+            return (Class<Object>) type;
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.peracom.simple_banking.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.LedgerPosting;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.LedgerPostingRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.ITransactionService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.event-sourcing.enabled=true",
+        "banking.event-sourcing.settle=PT0S",
+        "banking.event-sourcing.snapshot-interval-ms=3600000"
+})
+class EventSourcedLedgerTests {
+
+    private static final int ACCOUNTS = 10;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 100;
+    private static final Money OPENING_BALANCE = Money.parse("1000.00");
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private EventSourcedLedger ledger;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerPostingRepository postingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void derivedBalancesSurviveConcurrentMovementsAndSnapshots() throws Exception {
+        List<Long> accountIds = createAccounts();
+
+        runConcurrently(accountIds);
+        assertConsistent(accountIds);
+
+        // Snapshotting must not change any balance, and later postings build on the snapshot
+        Map<Long, Money> beforeSnapshot = ledger.balancesOf(accountIds);
+        ledger.snapshot();
+        assertEquals(beforeSnapshot, ledger.balancesOf(accountIds));
+        for (Account account : accountRepository.findAllById(accountIds)) {
+            assertEquals(beforeSnapshot.get(account.getId()), account.getBalance());
+        }
+
+        runConcurrently(accountIds);
+        assertConsistent(accountIds);
+    }
+
+    private void runConcurrently(List<Long> accountIds) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    try {
+                        if (random.nextInt(10) == 0) {
+                            WithdrawRequest request = new WithdrawRequest();
+                            request.setAccountId(accountIds.get(from));
+                            request.setAmount(Money.ofMinor(random.nextInt(1, 5000)));
+                            transactionService.withdraw(request);
+                        } else {
+                            TransferRequest request = new TransferRequest();
+                            request.setFromAccountId(accountIds.get(from));
+                            request.setToAccountId(accountIds.get((from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS));
+                            request.setAmount(Money.ofMinor(random.nextInt(1, 50000)));
+                            transactionService.transfer(request);
+                        }
+                    } catch (ResponseStatusException e) {
+                        // Insufficient balance
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+    }
+
+    private void assertConsistent(List<Long> accountIds) {
+        Map<Long, Money> balances = ledger.balancesOf(accountIds);
+        Map<Long, Money> nets = new HashMap<>();
+        transactionRepository.sumCreditsByAccount()
+                .forEach(sum -> nets.merge(sum.getAccountId(), Money.of(sum.getTotal()), Money::plus));
+        transactionRepository.sumDebitsByAccount()
+                .forEach(sum -> nets.merge(sum.getAccountId(), Money.of(sum.getTotal()).negate(), Money::plus));
+        for (Long id : accountIds) {
+            Money expected = OPENING_BALANCE.plus(nets.getOrDefault(id, Money.ZERO));
+            assertEquals(expected, balances.get(id), "ledger mismatch for " + id);
+            assertFalse(balances.get(id).isNegative(), "account " + id + " overdrawn");
+        }
+
+        Map<Long, Money> byTransaction = postingRepository.findAll().stream()
+                .collect(Collectors.toMap(LedgerPosting::getTransactionId, LedgerPosting::getAmount, Money::plus));
+        assertFalse(byTransaction.isEmpty());
+        byTransaction.forEach((transactionId, sum) ->
+                assertEquals(Money.ZERO, sum, "postings of transaction " + transactionId + " do not balance"));
+    }
+
+    private List<Long> createAccounts() {
+        User user = new User();
+        user.setName("Event sourcing");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("ES-" + UUID.randomUUID().toString().substring(0, 12));
+            account.setBalance(OPENING_BALANCE);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,188 @@
+package com.peracom.simple_banking.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.LedgerDeadLetter;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.LedgerDeadLetterRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.ITransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:ledger_engine",
+        "banking.ledger.enabled=true",
+        "banking.ledger.id-block-size=20"
+})
+class LedgerEngineTests {
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private LedgerEngine engine;
+
+    @Autowired
+    private LedgerJournal journal;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = new User();
+        user.setName("Ledger");
+        user.setEmail("ledger-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+    }
+
+    @Test
+    void movementsAreAcknowledgedWithTheIdsOfTheirRows() throws InterruptedException {
+        Account ledgerAccount = openAccount();
+        Account jpaAccount = openAccount();
+
+        // Interleave with inserts through JPA, which draw from the same generator, across several id blocks
+        List<Transaction> acknowledged = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 150; i++) {
+            Transaction transaction = transactionService.deposit(deposit(ledgerAccount, "1.00"));
+            acknowledged.add(transaction);
+            assertTrue(ids.add(transaction.getId()), "duplicate id " + transaction.getId());
+            assertTrue(ids.add(insertThroughJpa(jpaAccount).getId()), "duplicate id");
+        }
+        assertTrue(journal.awaitPersisted(Duration.ofSeconds(30)));
+
+        for (Transaction transaction : acknowledged) {
+            TransactionResponse row = transactionRepository.findResponseById(transaction.getId()).orElseThrow();
+            assertEquals(TransactionType.DEPOSIT, row.getType());
+            assertEquals(Money.parse("1.00"), row.getAmount());
+            assertEquals(ledgerAccount.getId(), row.getToAccountId());
+        }
+        assertEquals(Money.parse("150.00"),
+                accountRepository.findById(ledgerAccount.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void recoveryRebuildsBalancesFromTransactions() throws InterruptedException {
+        Account account = openAccount();
+        transactionService.deposit(deposit(account, "10.00"));
+        transactionService.deposit(deposit(account, "2.50"));
+        assertTrue(journal.awaitPersisted(Duration.ofSeconds(30)));
+
+        // The stored balance drifted; recovery trusts the transactions
+        jdbcTemplate.update("UPDATE accounts SET balance = 999.00 WHERE id = ?", account.getId());
+        LedgerEngine target = AopTestUtils.getUltimateTargetObject(engine);
+        target.recover();
+
+        assertEquals(Money.parse("12.50"), engine.getBalance(account.getId()));
+    }
+
+    @Test
+    void entryTheDatabaseRefusesIsQuarantinedWithoutHoldingBackLaterOnes() throws InterruptedException {
+        Account account = openAccount();
+        double before = quarantined();
+
+        LedgerJournal target = AopTestUtils.getUltimateTargetObject(journal);
+        long poisonId = target.nextTransactionId();
+        target.append(poisonId, TransactionType.DEPOSIT, null, 999_999_999L, 100, 0, 100, "Poison");
+        Transaction later = transactionService.deposit(deposit(account, "5.00"));
+        assertTrue(journal.awaitPersisted(Duration.ofSeconds(30)));
+
+        LedgerDeadLetter deadLetter = deadLetterRepository.findById(poisonId).orElseThrow();
+        assertEquals(999_999_999L, deadLetter.getToAccountId());
+        assertEquals(Money.parse("1.00"), deadLetter.getAmount());
+        assertFalse(transactionRepository.findResponseById(poisonId).isPresent());
+        assertTrue(transactionRepository.findResponseById(later.getId()).isPresent());
+        assertEquals(Money.parse("5.00"), accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        assertEquals(before + 1, quarantined());
+    }
+
+    @Test
+    void descriptionTheDatabaseWouldRefuseIsRejectedBeforeTheBalanceMoves() throws InterruptedException {
+        Account account = openAccount();
+        transactionService.deposit(deposit(account, "5.00"));
+        DepositRequest request = deposit(account, "1.00");
+        request.setDescription("x".repeat(Transaction.DESCRIPTION_LENGTH + 1));
+
+        ResponseStatusException rejected =
+                assertThrows(ResponseStatusException.class, () -> transactionService.deposit(request));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(Money.parse("5.00"), engine.getBalance(account.getId()));
+        request.setDescription("x".repeat(Transaction.DESCRIPTION_LENGTH));
+        transactionService.deposit(request);
+        assertTrue(journal.awaitPersisted(Duration.ofSeconds(30)));
+        assertEquals(Money.parse("6.00"), accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    private double quarantined() {
+        return meterRegistry.counter("banking.ledger.quarantined").count();
+    }
+
+    private Transaction insertThroughJpa(Account account) {
+        Transaction transaction = new Transaction();
+        transaction.setType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.parse("1.00"));
+        transaction.setToAccount(account);
+        return transactionRepository.save(transaction);
+    }
+
+    private Account openAccount() {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("LE-" + UUID.randomUUID());
+        account.setBalance(Money.ZERO);
+        return accountRepository.save(account);
+    }
+
+    private static DepositRequest deposit(Account account, String amount) {
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(account.getId());
+        request.setAmount(Money.parse(amount));
+        return request;
+    }
+}
@@ -0,0 +1,163 @@
+package com.peracom.simple_banking.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.model.TransactionType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTests {
+
+    private static final int SEGMENT_SIZE = WriteAheadLog.MIN_SEGMENT_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEntriesAfterTheCheckpointAcrossSegments() throws IOException {
+        WriteAheadLog wal = open(WalSyncPolicy.ALWAYS);
+        for (long sequence = 1; sequence <= 2000; sequence++) {
+            wal.append(entry(sequence));
+        }
+        wal.close();
+        assertTrue(segments().size() > 1, "expected the log to rotate");
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, WalSyncPolicy.ALWAYS);
+        List<JournalEntry> recovered = reopened.recover(1500);
+
+        assertEquals(2000, reopened.lastSequence());
+        assertEquals(500, recovered.size());
+        assertEquals(entry(1501), recovered.get(0));
+        assertEquals(entry(2000), recovered.get(499));
+    }
+
+    @Test
+    void tornTailEndsTheLog() throws IOException {
+        WriteAheadLog wal = open(WalSyncPolicy.NONE);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            wal.append(entry(sequence));
+        }
+        wal.close();
+
+        // Flip a byte inside the last record, as if the crash hit halfway through writing it
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 2L * recordSize() + 20);
+        }
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, WalSyncPolicy.NONE);
+        List<JournalEntry> recovered = reopened.recover(0);
+        assertEquals(List.of(entry(1), entry(2)), recovered);
+
+        // Appends continue in a fresh segment, leaving the torn one behind
+        reopened.open(3);
+        reopened.append(entry(3));
+        reopened.close();
+        assertEquals(2, segments().size());
+    }
+
+    @Test
+    void corruptionBeforeTheLastSegmentIsRejected() throws IOException {
+        WriteAheadLog wal = open(WalSyncPolicy.NONE);
+        for (long sequence = 1; sequence <= 2000; sequence++) {
+            wal.append(entry(sequence));
+        }
+        wal.close();
+
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 20);
+        }
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, WalSyncPolicy.NONE);
+        assertThrows(IllegalStateException.class, () -> reopened.recover(0));
+    }
+
+    @Test
+    void releaseDeletesOnlyFullyAppliedSegments() throws IOException {
+        WriteAheadLog wal = open(WalSyncPolicy.NONE);
+        for (long sequence = 1; sequence <= 2000; sequence++) {
+            wal.append(entry(sequence));
+        }
+        List<Path> before = segments();
+
+        wal.release(10);
+        assertEquals(before, segments());
+
+        wal.release(2000);
+        assertEquals(List.of(before.get(before.size() - 1)), segments());
+        wal.close();
+    }
+
+    @Test
+    void batchAcknowledgementsWaitForSync() throws Exception {
+        WriteAheadLog wal = open(WalSyncPolicy.BATCH);
+        wal.append(entry(1));
+
+        Thread waiter = new Thread(() -> {
+            try {
+                wal.awaitDurable(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(200);
+        assertTrue(waiter.isAlive(), "acknowledged before the sync");
+
+        assertTrue(wal.sync());
+        waiter.join(5000);
+        assertFalse(waiter.isAlive(), "still waiting after the sync");
+        wal.close();
+    }
+
+    @Test
+    void longDescriptionsRoundTrip() throws IOException {
+        String description = "Ünïcödé ".repeat(1000);
+        JournalEntry entry = new JournalEntry(1, 1001, TransactionType.DEPOSIT, null, 2L, 100, 0, 100, description,
+                Instant.ofEpochSecond(1_700_000_000L, 1));
+        WriteAheadLog wal = open(WalSyncPolicy.ALWAYS);
+        wal.append(entry);
+        wal.append(entry(2));
+        wal.close();
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, WalSyncPolicy.ALWAYS);
+        assertEquals(List.of(entry, entry(2)), reopened.recover(0));
+    }
+
+    private WriteAheadLog open(WalSyncPolicy policy) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, policy);
+        wal.recover(0);
+        wal.open(1);
+        return wal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Header plus payload of {@link #entry}; every test entry encodes to the same size.
+     */
+    private static int recordSize() {
+        return 8 + WriteAheadLog.FIXED_PAYLOAD_SIZE + "Test movement".length();
+    }
+
+    private static JournalEntry entry(long sequence) {
+        return new JournalEntry(sequence, 1000 + sequence, TransactionType.TRANSFER, 1L, 2L, 100, 900, 1100, "Test movement",
+                Instant.ofEpochSecond(1_700_000_000L, sequence));
+    }
+}
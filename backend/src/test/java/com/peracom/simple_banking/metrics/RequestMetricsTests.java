@@ -0,0 +1,176 @@
+package com.peracom.simple_banking.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import com.peracom.simple_banking.services.IAsyncTransactionService;
+import com.peracom.simple_banking.services.IIdempotencyService;
+import com.peracom.simple_banking.services.ITokenService;
+import com.peracom.simple_banking.services.ITransactionService;
+import com.peracom.simple_banking.services.IdempotencyService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Statements run on other threads on behalf of a request still count towards
+ * it, and only operations of the service interfaces are timed.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:request_metrics",
+        "banking.locking.mode=SHARDED",
+        "banking.group-commit.enabled=true"
+})
+@AutoConfigureMockMvc
+class RequestMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ITokenService tokenService;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private IAsyncTransactionService asyncTransactionService;
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Account account;
+    private String token;
+
+    @BeforeEach
+    void openAccount() {
+        User user = new User();
+        user.setName("Metrics");
+        user.setEmail("metrics-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("MT-" + UUID.randomUUID());
+        account.setBalance(Money.ZERO);
+        accountRepository.save(account);
+        token = "Bearer " + tokenService.issue(user.getId()).getToken();
+    }
+
+    @Test
+    void movementOnAShardAndAGroupCommitCountsTowardsTheCaller() throws Exception {
+        int statements = statementsOf(() -> transactionService.deposit(deposit()));
+
+        assertTrue(statements > 0, "no statements counted");
+    }
+
+    @Test
+    void queuedMovementCountsTowardsTheRequestThatQueuedIt() throws Exception {
+        // The caller lets go at once; the queued movement holds the scope until it is done
+        int statements = statementsOf(() -> asyncTransactionService.deposit(null, deposit()));
+
+        assertTrue(statements > 0, "no statements counted");
+    }
+
+    @Test
+    void tasksOnTheApplicationExecutorCountTowardsTheirSubmitter() throws Exception {
+        int statements = statementsOf(() -> applicationTaskExecutor.execute(
+                () -> transactionService.getTransactionPage(account.getId(), null, 50, null, null, null)));
+
+        assertTrue(statements > 0, "no statements counted");
+    }
+
+    @Test
+    void asynchronousRequestIsRecordedOnceItsResponseCompletes() throws Exception {
+        String uri = "/api/transactions/async/deposit";
+        DistributionSummary summary = meterRegistry.find("banking.request.db.statements").tag("uri", uri).summary();
+        long before = summary == null ? 0 : summary.count();
+
+        MvcResult accepted = mockMvc.perform(post(uri + "?wait=true")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountId\":" + account.getId() + ",\"amount\":1.00}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(accepted)).andExpect(status().isOk());
+
+        summary = meterRegistry.find("banking.request.db.statements").tag("uri", uri).summary();
+        assertNotNull(summary);
+        assertEquals(before + 1, summary.count());
+    }
+
+    @Test
+    void onlyOperationsOfTheServiceInterfacesAreTimed() {
+        transactionService.getTransactionPage(account.getId(), null, 50, null, null, null);
+        IdempotencyService target = AopTestUtils.getUltimateTargetObject(idempotencyService);
+        target.purgeExpired();
+
+        assertNotNull(meterRegistry.find("banking.operation")
+                .tags("service", "TransactionService", "operation", "getTransactionPage").timer());
+        assertNull(meterRegistry.find("banking.operation")
+                .tags("service", "IdempotencyService", "operation", "purgeExpired").timer());
+    }
+
+    /**
+     * Runs the work in a scope of its own, as a request would, and returns the
+     * statements counted once every holder has let go.
+     */
+    private static int statementsOf(Runnable work) throws Exception {
+        CompletableFuture<Integer> recorded = new CompletableFuture<>();
+        StatementCounter.Scope scope = StatementCounter.open(recorded::complete);
+        try {
+            work.run();
+        } finally {
+            StatementCounter.unbind();
+            scope.release();
+        }
+        return recorded.get(10, TimeUnit.SECONDS);
+    }
+
+    private DepositRequest deposit() {
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(account.getId());
+        request.setAmount(Money.parse("1.00"));
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.peracom.simple_banking.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.config.JacksonConfig;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The amount handling of one transfer: validation, the balance check and both
+ * balance updates, with {@link BigDecimal} against {@link Money}. Run with
+ * {@code -Djmh.args="-prof gc MoneyBenchmark"} to compare allocation per
+ * operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private static final String TRANSFER_JSON = "{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":125.50}";
+
+    private ObjectMapper objectMapper;
+
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private BigDecimal decimalAmount;
+
+    private Money moneyFrom;
+    private Money moneyTo;
+    private Money moneyAmount;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        decimalFrom = new BigDecimal("1000000.00");
+        decimalTo = new BigDecimal("250.75");
+        decimalAmount = new BigDecimal("125.50");
+        moneyFrom = Money.of(decimalFrom);
+        moneyTo = Money.of(decimalTo);
+        moneyAmount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public BigDecimal transferBigDecimal() {
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0 || decimalFrom.compareTo(decimalAmount) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal from = decimalFrom.subtract(decimalAmount);
+        BigDecimal to = decimalTo.add(decimalAmount);
+        return from.add(to);
+    }
+
+    @Benchmark
+    public Money transferMoney() {
+        if (!moneyAmount.isPositive() || moneyFrom.isLessThan(moneyAmount)) {
+            throw new IllegalStateException();
+        }
+        Money from = moneyFrom.minus(moneyAmount);
+        Money to = moneyTo.plus(moneyAmount);
+        return from.plus(to);
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return new BigDecimal("125.50");
+    }
+
+    @Benchmark
+    public Money parseMoney() {
+        return Money.parse("125.50");
+    }
+
+    @Benchmark
+    public TransferRequest readTransferRequest() throws IOException {
+        return objectMapper.readValue(TRANSFER_JSON, TransferRequest.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.peracom.simple_banking.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyTests {
+
+    private final MoneyConverter converter = new MoneyConverter();
+
+    @Test
+    void parsesPlainDecimals() {
+        assertEquals(Money.ofMinor(10050), Money.parse("100.5"));
+        assertEquals(Money.ofMinor(10000), Money.parse("100"));
+        assertEquals(Money.ofMinor(10000), Money.parse("+100.00"));
+        assertEquals(Money.ofMinor(50), Money.parse(".5"));
+        assertEquals(Money.ofMinor(10000), Money.parse("1e2"));
+        assertEquals(Money.ZERO, Money.parse("-0"));
+    }
+
+    @Test
+    void parsesNegativeAmounts() {
+        assertEquals(Money.ofMinor(-1250), Money.parse("-12.5"));
+        assertEquals(Money.ofMinor(-5), Money.parse("-0.05"));
+        assertEquals("-0.05", Money.parse("-0.05").toString());
+        assertTrue(Money.parse("-0.01").isNegative());
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimalPlaces() {
+        assertThrows(ArithmeticException.class, () -> Money.parse("12.345"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("-0.001"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.005")));
+        // Trailing zeros lose nothing
+        assertEquals(Money.ofMinor(1230), Money.parse("12.300"));
+    }
+
+    @Test
+    void rejectsAmountsThatDoNotFit() {
+        assertEquals(Money.ofMinor(Long.MAX_VALUE), Money.parse("92233720368547758.07"));
+        assertEquals(Money.ofMinor(-Long.MAX_VALUE), Money.parse("-92233720368547758.07"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("100000000000000000000"));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void rejectsText() {
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12,50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("ten"));
+    }
+
+    @Test
+    void formatsWithTwoPlaces() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("100.50", Money.parse("100.5").toString());
+        assertEquals("-12.05", Money.ofMinor(-1205).toString());
+    }
+
+    @Test
+    void converterRoundTripsThroughTheDecimalColumn() {
+        for (String amount : new String[] {"0.00", "0.01", "-12.34", "92233720368547758.07"}) {
+            Money money = Money.parse(amount);
+            BigDecimal column = converter.convertToDatabaseColumn(money);
+            assertEquals(new BigDecimal(amount), column);
+            assertEquals(money, converter.convertToEntityAttribute(column));
+        }
+        // The column may come back with another scale
+        assertEquals(Money.parse("5.00"), converter.convertToEntityAttribute(new BigDecimal("5")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,123 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.config.CacheConfig;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.UserResponse;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Cached account and user reads never outlive the change that made them
+ * stale.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:account_cache"
+})
+class AccountCacheTests {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private AccountCacheInvalidator invalidator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = new User();
+        user.setName("Cache");
+        user.setEmail("cache-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+    }
+
+    @Test
+    void committedMovementEvictsTheAccountAndItsOwnersList() {
+        CreateAccountRequest request = new CreateAccountRequest();
+        request.setUserId(user.getId());
+        request.setBalance(Money.parse("10.00"));
+        Account account = accountService.createAccount(request);
+        assertEquals(Money.parse("10.00"), accountService.getAccount(account.getId()).getBalance());
+        assertEquals(Money.parse("10.00"), accountService.getAccountsByUser(user.getId()).get(0).getBalance());
+
+        DepositRequest deposit = new DepositRequest();
+        deposit.setAccountId(account.getId());
+        deposit.setAmount(Money.parse("5.00"));
+        transactionService.deposit(deposit);
+
+        assertEquals(Money.parse("15.00"), accountService.getAccount(account.getId()).getBalance());
+        assertEquals(Money.parse("15.00"), accountService.getAccountsByUser(user.getId()).get(0).getBalance());
+    }
+
+    @Test
+    void evictionDiscardsALoadThatReadTheRowBeforeTheCommit() throws Exception {
+        Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        Long accountId = -1L;
+        AccountResponse stale = new AccountResponse(accountId, "STALE", user.getId(), Money.ZERO, null, null);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        // A miss loads the old row, then the change commits and evicts before the load returns
+        CompletableFuture<AccountResponse> read = CompletableFuture.supplyAsync(() -> accounts.get(accountId, () -> {
+            loading.countDown();
+            committed.await();
+            return stale;
+        }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> evicted = CompletableFuture.runAsync(
+                () -> invalidator.onAccountChanged(new AccountChangedEvent(accountId, user.getId())));
+        Thread.sleep(100);
+        assertFalse(evicted.isDone(), "the eviction did not wait for the load");
+        committed.countDown();
+
+        read.get(10, TimeUnit.SECONDS);
+        evicted.get(10, TimeUnit.SECONDS);
+        assertNull(accounts.get(accountId));
+    }
+
+    @Test
+    void usersAreCachedAsResponsesAndEvictedOnDelete() {
+        Cache users = cacheManager.getCache(CacheConfig.USERS);
+
+        assertEquals(user.getEmail(), userRepository.findResponseById(user.getId()).orElseThrow().getEmail());
+        Cache.ValueWrapper cached = users.get(user.getId());
+        assertNotNull(cached);
+        assertInstanceOf(UserResponse.class, cached.get());
+
+        userRepository.deleteById(user.getId());
+        assertNull(users.get(user.getId()));
+        assertTrue(userRepository.findResponseById(user.getId()).isEmpty());
+    }
+}
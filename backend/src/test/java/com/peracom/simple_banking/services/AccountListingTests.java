@@ -0,0 +1,121 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.dtos.AccountFilter;
+import com.peracom.simple_banking.dtos.AccountResponse;
+import com.peracom.simple_banking.dtos.CursorPage;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.AccountStatus;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:account_listing"
+})
+class AccountListingTests {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pagesFollowCreationOrderWithinTheFilters() throws Exception {
+        User owner = user();
+        User someoneElse = user();
+        List<Account> owned = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            owned.add(account(owner, i % 3 == 0 ? AccountStatus.CLOSED : AccountStatus.ACTIVE));
+        }
+        account(someoneElse, AccountStatus.ACTIVE);
+        List<Long> oldestFirst = owned.stream()
+                .sorted(Comparator.comparing(Account::getCreatedAt).thenComparing(Account::getId))
+                .map(Account::getId)
+                .toList();
+        List<Long> newestFirst = new ArrayList<>(oldestFirst);
+        Collections.reverse(newestFirst);
+
+        AccountFilter byOwner = new AccountFilter(null, owner.getId(), null, null);
+        assertEquals(newestFirst, ids(byOwner, Sort.Direction.DESC));
+        assertEquals(oldestFirst, ids(byOwner, Sort.Direction.ASC));
+
+        AccountFilter closed = new AccountFilter(AccountStatus.CLOSED, owner.getId(), null, null);
+        assertEquals(List.of(owned.get(6).getId(), owned.get(3).getId(), owned.get(0).getId()),
+                ids(closed, Sort.Direction.DESC));
+
+        AccountResponse oldest = accountService.getAccountPage(byOwner, Sort.Direction.ASC, null, 1).getItems().get(0);
+        AccountFilter before = new AccountFilter(null, owner.getId(), null, oldest.getCreatedAt());
+        assertEquals(List.of(), ids(before, Sort.Direction.DESC));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountService.exportAccounts(byOwner, out);
+        List<Long> exported = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(this::readId)
+                .toList();
+        assertEquals(newestFirst, exported);
+    }
+
+    private List<Long> ids(AccountFilter filter, Sort.Direction direction) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<AccountResponse> page = accountService.getAccountPage(filter, direction, cursor, 3);
+            page.getItems().forEach(account -> ids.add(account.getId()));
+            cursor = page.getNextCursor();
+            if (page.getItems().size() < 3) {
+                assertNull(cursor);
+            }
+        } while (cursor != null);
+        return ids;
+    }
+
+    private long readId(String line) {
+        try {
+            return objectMapper.readTree(line).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private User user() {
+        User user = new User();
+        user.setName("Listing");
+        user.setEmail("listing-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        return userRepository.save(user);
+    }
+
+    private Account account(User user, AccountStatus status) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("LIST-" + UUID.randomUUID());
+        account.setBalance(Money.parse("10.00"));
+        account.setStatus(status);
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,79 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.account-number.block-size=100"
+})
+class AccountNumberGeneratorTests {
+
+    private static final int THREADS = 16;
+    private static final int ACCOUNTS_PER_THREAD = 6250;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentlyCreatedAccountsGetUniqueValidNumbers() throws Exception {
+        User user = new User();
+        user.setName("Numbering");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        Long userId = userRepository.save(user).getId();
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < ACCOUNTS_PER_THREAD; i++) {
+                    CreateAccountRequest request = new CreateAccountRequest();
+                    request.setUserId(userId);
+                    numbers.add(accountService.createAccount(request).getAccountNumber());
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.MINUTES));
+        log.info("Created {} accounts in {} ms",
+                THREADS * ACCOUNTS_PER_THREAD, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, numbers.size());
+        assertEquals(THREADS * ACCOUNTS_PER_THREAD, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT account_number) FROM accounts WHERE user_id = ?", Integer.class, userId));
+        numbers.forEach(number -> assertTrue(AccountNumberGenerator.isValid(number), number));
+
+        // A single mistyped digit fails the check
+        String number = numbers.iterator().next();
+        char last = number.charAt(number.length() - 2);
+        String mistyped = number.substring(0, number.length() - 2) + (char) ('0' + (last - '0' + 1) % 10)
+                + number.charAt(number.length() - 1);
+        assertFalse(AccountNumberGenerator.isValid(mistyped));
+    }
+}
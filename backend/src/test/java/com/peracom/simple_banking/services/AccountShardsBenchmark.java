@@ -0,0 +1,106 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.BenchmarkContexts;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Movement throughput per {@link LockMode} under a uniform spread of accounts
+ * and under a skewed one where nine in ten movements touch one hot account.
+ * Run with increasing thread counts to see how each mode scales, e.g.
+ * {@code mvn test -Pjmh -Djmh.args="AccountShardsBenchmark -f 1 -wi 3 -i 5 -t 8"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountShardsBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int HOT_PERCENT = 90;
+    private static final Money AMOUNT = Money.ofMinor(1);
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC", "SHARDED"})
+    public LockMode mode;
+
+    @Param({"UNIFORM", "SKEWED"})
+    public String workload;
+
+    private ConfigurableApplicationContext context;
+    private ITransactionService transactionService;
+    private Long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("jmh_shards_" + mode + "_" + workload,
+                "banking.locking.mode=" + mode,
+                "banking.locking.max-attempts=1000");
+        transactionService = context.getBean(ITransactionService.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPasswordHash("x");
+        user = context.getBean(UserRepository.class).save(user);
+
+        accountIds = new Long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("JMH-" + i);
+            account.setBalance(Money.parse("1000000000.00"));
+            accountIds[i] = accountRepository.save(account).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(accountIds[pick()]);
+        request.setAmount(AMOUNT);
+        return transactionService.deposit(request);
+    }
+
+    @Benchmark
+    public Transaction transfer() {
+        int from = pick();
+        int to = ThreadLocalRandom.current().nextInt(ACCOUNTS - 1);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(accountIds[from]);
+        request.setToAccountId(accountIds[to >= from ? to + 1 : to]);
+        request.setAmount(AMOUNT);
+        return transactionService.transfer(request);
+    }
+
+    private int pick() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (workload.equals("SKEWED") && random.nextInt(100) < HOT_PERCENT) {
+            return 0;
+        }
+        return random.nextInt(ACCOUNTS);
+    }
+}
@@ -0,0 +1,104 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.MovementStatus;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.async.threads=1",
+        "banking.async.queue-capacity=4"
+})
+class AsyncTransactionServiceTests {
+
+    private static final int BURST = 200;
+
+    @Autowired
+    private IAsyncTransactionService asyncTransactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void burstBeyondTheQueueIsRejectedAndEveryAcceptedMovementCompletes() {
+        Long accountId = createAccount();
+
+        List<AcceptedMovement> accepted = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < BURST; i++) {
+            DepositRequest request = new DepositRequest();
+            request.setAccountId(accountId);
+            request.setAmount(Money.parse("1.00"));
+            try {
+                accepted.add(asyncTransactionService.deposit(null, request));
+            } catch (ResponseStatusException e) {
+                assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0, "the queue never filled up");
+
+        CompletableFuture.allOf(accepted.stream().map(AcceptedMovement::result).toArray(CompletableFuture[]::new))
+                .join();
+        for (AcceptedMovement movement : accepted) {
+            MovementStatus status = asyncTransactionService.getStatus(movement.id());
+            assertEquals(MovementStatus.State.COMPLETED, status.getState());
+            assertEquals(Money.parse("1.00"), status.getTransaction().getAmount());
+        }
+        assertEquals(Money.ofMinor(100L * accepted.size()), accountRepository.findById(accountId).get().getBalance());
+    }
+
+    @Test
+    void failedMovementReportsItsStatus() {
+        WithdrawRequest request = new WithdrawRequest();
+        request.setAccountId(createAccount());
+        request.setAmount(Money.parse("5.00"));
+
+        AcceptedMovement movement = asyncTransactionService.withdraw(null, request);
+        try {
+            movement.result().join();
+        } catch (CompletionException e) {
+            // Reported through the status below
+        }
+
+        MovementStatus status = asyncTransactionService.getStatus(movement.id());
+        assertEquals(MovementStatus.State.FAILED, status.getState());
+        assertEquals(400, status.getErrorStatus());
+        assertEquals("Insufficient balance.", status.getError());
+    }
+
+    private Long createAccount() {
+        User user = new User();
+        user.setName("Async");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("AS-" + UUID.randomUUID().toString().substring(0, 12));
+        account.setBalance(Money.ZERO);
+        return accountRepository.save(account).getId();
+    }
+}
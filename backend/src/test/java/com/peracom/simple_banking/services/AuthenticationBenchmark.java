@@ -0,0 +1,66 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.BenchmarkContexts;
+import com.peracom.simple_banking.dtos.LoginRequest;
+import com.peracom.simple_banking.dtos.RegisterRequest;
+import com.peracom.simple_banking.model.User;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Per-request authentication cost: re-sending credentials (user lookup plus
+ * BCrypt) against verifying a bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthenticationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private ITokenService tokenService;
+    private LoginRequest login;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("jmh_auth");
+        userService = context.getBean(IUserService.class);
+        tokenService = context.getBean(ITokenService.class);
+
+        RegisterRequest register = new RegisterRequest();
+        register.setName("Benchmark");
+        register.setEmail("benchmark@example.com");
+        register.setPassword("correct horse battery staple");
+        User user = userService.register(register).join();
+
+        login = new LoginRequest();
+        login.setEmail(register.getEmail());
+        login.setPassword(register.getPassword());
+        token = tokenService.issue(user.getId()).getToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User credentialsPerRequest() {
+        return userService.login(login).join();
+    }
+
+    @Benchmark
+    public TokenPrincipal tokenPerRequest() {
+        return tokenService.verify(token);
+    }
+}
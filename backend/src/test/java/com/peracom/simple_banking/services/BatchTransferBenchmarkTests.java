@@ -0,0 +1,110 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.peracom.simple_banking.dtos.BatchItemRequest;
+import com.peracom.simple_banking.dtos.BatchMode;
+import com.peracom.simple_banking.dtos.BatchTransactionRequest;
+import com.peracom.simple_banking.dtos.BatchTransactionResponse;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Compares payroll-style transfers sent one by one against the batch API.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BatchTransferBenchmarkTests {
+
+    private static final int PAYEES = 500;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void batchVersusPerItemTransfers() {
+        List<Long> perItem = createAccounts();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 1; i < perItem.size(); i++) {
+                TransferRequest request = new TransferRequest();
+                request.setFromAccountId(perItem.get(0));
+                request.setToAccountId(perItem.get(i));
+                request.setAmount(Money.parse("10.00"));
+                transactionService.transfer(request);
+            }
+        }
+        double perItemSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> batched = createAccounts();
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<BatchItemRequest> items = new ArrayList<>();
+            for (int i = 1; i < batched.size(); i++) {
+                BatchItemRequest item = new BatchItemRequest();
+                item.setType(TransactionType.TRANSFER);
+                item.setFromAccountId(batched.get(0));
+                item.setToAccountId(batched.get(i));
+                item.setAmount(Money.parse("10.00"));
+                items.add(item);
+            }
+            BatchTransactionRequest request = new BatchTransactionRequest();
+            request.setMode(BatchMode.ALL_OR_NOTHING);
+            request.setItems(items);
+            BatchTransactionResponse response = transactionService.executeBatch(request);
+            assertEquals(PAYEES, response.getApplied());
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+
+        int transfers = PAYEES * ROUNDS;
+        log.info("per-item: {} transfers in {} s = {} ops/s",
+                transfers, String.format("%.2f", perItemSeconds), String.format("%.0f", transfers / perItemSeconds));
+        log.info("batch:    {} transfers in {} s = {} ops/s",
+                transfers, String.format("%.2f", batchSeconds), String.format("%.0f", transfers / batchSeconds));
+
+        for (int i = 1; i <= PAYEES; i++) {
+            assertEquals(accountRepository.findById(perItem.get(i)).get().getBalance(),
+                    accountRepository.findById(batched.get(i)).get().getBalance());
+        }
+    }
+
+    private List<Long> createAccounts() {
+        User user = new User();
+        user.setName("Payroll");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i <= PAYEES; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("PAY-" + UUID.randomUUID().toString().substring(0, 12));
+            account.setBalance(i == 0 ? Money.parse("1000000.00") : Money.ZERO);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,18 @@
+package com.peracom.simple_banking.services;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs {@link DailyRollupTests} against MySQL, since H2 accepts SQL that
+ * MySQL rejects. Run with {@code mvn test -Pmysql} against an empty schema.
+ */
+@Tag("mysql")
+@ActiveProfiles("mysql")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.rollups.backfill-chunk-size=1"
+})
+class DailyRollupMySqlTests extends DailyRollupTests {
+}
@@ -0,0 +1,139 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.AccountActivityReport;
+import com.peracom.simple_banking.dtos.DailyTotals;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:daily_rollups",
+        "banking.rollups.backfill-chunk-size=1"
+})
+class DailyRollupTests {
+
+    @Autowired
+    private IDailyRollupService dailyRollupService;
+
+    @Autowired
+    private DailyRollupWriter dailyRollupWriter;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupsFollowCommittedMovementsAndMatchABackfill() throws Exception {
+        User user = new User();
+        user.setName("Rollups");
+        user.setEmail("rollups-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account checking = account(user);
+        Account savings = account(user);
+
+        // Posted out of time order: a withdrawal earlier in the day than the transfer before it, then a back-dated deposit
+        post(TransactionType.DEPOSIT, null, checking, "100.00", "2024-03-01T10:00:00Z");
+        post(TransactionType.TRANSFER, checking, savings, "30.00", "2024-03-03T23:59:59Z");
+        post(TransactionType.WITHDRAW, checking, null, "5.00", "2024-03-03T01:00:00Z");
+        post(TransactionType.DEPOSIT, null, checking, "20.00", "2024-03-02T12:00:00Z");
+        transactionTemplate.executeWithoutResult(status -> {
+            post(TransactionType.DEPOSIT, null, savings, "1000.00", "2024-03-03T12:00:00Z");
+            transactionRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertTrue(dailyRollupWriter.awaitSettled(10, TimeUnit.SECONDS));
+
+        AccountActivityReport report = dailyRollupService.getAccountReport(
+                checking.getId(), LocalDate.parse("2024-03-02"), LocalDate.parse("2024-03-31"));
+        assertEquals(Money.parse("100.00"), report.getOpeningBalance());
+        assertEquals(Money.parse("85.00"), report.getClosingBalance());
+        assertEquals(3, report.getTransactionCount());
+        assertEquals(Money.parse("20.00"), report.getMoneyIn());
+        assertEquals(Money.parse("35.00"), report.getMoneyOut());
+        assertEquals(Money.parse("20.00"), report.getDeposits());
+        assertEquals(Money.parse("5.00"), report.getWithdrawals());
+        assertEquals(List.of(LocalDate.parse("2024-03-02"), LocalDate.parse("2024-03-03")),
+                report.getDays().stream().map(day -> day.getDay()).toList());
+        assertEquals(Money.parse("120.00"), report.getDays().get(0).getClosingBalance());
+
+        List<DailyTotals> totals = dailyRollupService.getDailyTotals(
+                LocalDate.parse("2024-03-03"), LocalDate.parse("2024-03-03"));
+        assertEquals(1, totals.size());
+        assertEquals(2, totals.get(0).getActiveAccounts());
+        assertEquals(Money.ZERO, totals.get(0).getDeposits());
+        assertEquals(Money.parse("5.00"), totals.get(0).getWithdrawals());
+        assertEquals(Money.parse("30.00"), totals.get(0).getTransfers());
+
+        DepositRequest deposit = new DepositRequest();
+        deposit.setAccountId(savings.getId());
+        deposit.setAmount(Money.parse("2.50"));
+        transactionService.deposit(deposit);
+        assertTrue(dailyRollupWriter.awaitSettled(10, TimeUnit.SECONDS));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertEquals(Money.parse("32.50"), dailyRollupService
+                .getAccountReport(savings.getId(), today.minusDays(1), today.plusDays(1)).getClosingBalance());
+
+        List<Map<String, Object>> incremental = rollups();
+        jdbcTemplate.update("update account_daily_rollups set closing_balance = 0");
+        dailyRollupService.backfill();
+        assertEquals(incremental, rollups());
+    }
+
+    private List<Map<String, Object>> rollups() {
+        return jdbcTemplate.queryForList("select * from account_daily_rollups order by account_id, activity_date");
+    }
+
+    private void post(TransactionType type, Account from, Account to, String amount, String timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setAmount(Money.parse(amount));
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        transaction.setTimestamp(Instant.parse(timestamp));
+        transactionRepository.save(transaction);
+    }
+
+    private Account account(User user) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("ROLL-" + UUID.randomUUID());
+        return accountRepository.save(account);
+    }
+}
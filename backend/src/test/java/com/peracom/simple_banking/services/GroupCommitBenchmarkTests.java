@@ -0,0 +1,100 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.peracom.simple_banking.SimpleBankingApplication;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares deposit throughput of the per-request commit path against group
+ * commit. Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class GroupCommitBenchmarkTests {
+
+    private static final int ACCOUNTS = 100;
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 10_000;
+
+    @ParameterizedTest(name = "{0}, group commit {1}")
+    @CsvSource({
+            "h2, false", "h2, true",
+            "mysql, false", "mysql, true"
+    })
+    void depositThroughput(String mode, boolean groupCommit) throws Exception {
+        String url = "mysql".equals(mode)
+                ? "jdbc:h2:mem:gc_mysql_" + groupCommit + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                : "jdbc:h2:mem:gc_h2_" + groupCommit;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SimpleBankingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=" + THREADS,
+                        "banking.group-commit.enabled=" + groupCommit)
+                .run()) {
+            ITransactionService transactionService = context.getBean(ITransactionService.class);
+            List<Long> accountIds = createAccounts(context);
+
+            AtomicInteger completed = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                pool.submit(() -> {
+                    DepositRequest request = new DepositRequest();
+                    request.setAccountId(accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS)));
+                    request.setAmount(Money.parse("1.00"));
+                    transactionService.deposit(request);
+                    completed.incrementAndGet();
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            log.info("{} group-commit={} {} deposits in {} s = {} ops/s", mode, groupCommit, completed.get(),
+                    String.format("%.2f", seconds), String.format("%.0f", completed.get() / seconds));
+            assertEquals(OPERATIONS, completed.get());
+        }
+    }
+
+    private List<Long> createAccounts(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("BENCH-" + i);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A group commit keeps the shared transaction when one of its items is
+ * rejected, so a rejected transfer must not have modified either account.
+ * Work that can no longer be committed fails rather than waiting forever.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:group_commit_transfer",
+        "banking.group-commit.enabled=true"
+})
+class GroupCommitTransferTests {
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ThreadFactory backgroundThreadFactory;
+
+    @Test
+    void transferThatWouldOverflowTheDestinationLeavesTheSourceUntouched() {
+        User user = new User();
+        user.setName("Overflow");
+        user.setEmail("overflow-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account source = openAccount(user, Money.parse("100.00"));
+        Account full = openAccount(user, Money.ofMinor(Long.MAX_VALUE));
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(source.getId());
+        request.setToAccountId(full.getId());
+        request.setAmount(Money.parse("1.00"));
+        ResponseStatusException rejected =
+                assertThrows(ResponseStatusException.class, () -> transactionService.transfer(request));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(Money.parse("100.00"), accountRepository.findById(source.getId()).orElseThrow().getBalance());
+        assertEquals(Money.ofMinor(Long.MAX_VALUE), accountRepository.findById(full.getId()).orElseThrow().getBalance());
+        assertTrue(transactionService.getTransactionPage(source.getId(), null, 1, null, null, null)
+                .getItems().isEmpty());
+    }
+
+    @Test
+    void workSubmittedAfterShutdownIsRejectedInsteadOfWaitingForever() throws Exception {
+        GroupCommitter stopped = new GroupCommitter(transactionTemplate, backgroundThreadFactory);
+        ReflectionTestUtils.setField(stopped, "batchSize", 10);
+        stopped.start();
+        stopped.stop();
+
+        CompletableFuture<Object> submitted = stopped.submit(() -> "never run");
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> submitted.get(5, TimeUnit.SECONDS));
+        ResponseStatusException rejected = assertInstanceOf(ResponseStatusException.class, failed.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+    }
+
+    private Account openAccount(User user, Money balance) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("GC-" + UUID.randomUUID());
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+}
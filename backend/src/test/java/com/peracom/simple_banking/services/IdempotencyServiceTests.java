@@ -0,0 +1,260 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.IdempotencyRecord;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.IdempotencyRecordRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:idempotency"
+})
+class IdempotencyServiceTests {
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void repeatedKeyReplaysTheFirstResultWithoutMovingMoneyAgain() {
+        Long accountId = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+
+        TransactionResponse first = deposit(key, accountId, "10.00");
+        TransactionResponse replayed = deposit(key, accountId, "10.00");
+
+        assertEquals(first.getId(), replayed.getId());
+        assertEquals(Money.parse("10.00"), balanceOf(accountId));
+        assertEquals(first.getId(), idempotencyRecordRepository.findById(key).orElseThrow().getTransactionId());
+    }
+
+    @Test
+    void keyCommittedElsewhereIsReplayedFromTheStore() {
+        Long accountId = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+        TransactionResponse first = deposit(key, accountId, "10.00");
+
+        // As if the retry reached a node that never saw the first request
+        forgetCachedResults();
+        TransactionResponse replayed = deposit(key, accountId, "10.00");
+
+        assertEquals(first.getId(), replayed.getId());
+        assertEquals(Money.parse("10.00"), balanceOf(accountId));
+    }
+
+    @Test
+    void duplicateThatCommitsFirstWinsAndTheOtherIsRolledBack() {
+        assertDuplicateIsRolledBack(idempotencyService, transactionService, idempotencyRecordRepository,
+                createAccount("0.00"), this::balanceOf);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        Long accountId = createAccount("50.00");
+        String key = UUID.randomUUID().toString();
+        deposit(key, accountId, "10.00");
+
+        assertUnprocessable(() -> deposit(key, accountId, "11.00"));
+        WithdrawRequest withdraw = new WithdrawRequest();
+        withdraw.setAccountId(accountId);
+        withdraw.setAmount(Money.parse("10.00"));
+        assertUnprocessable(() -> idempotencyService.execute(
+                key, "withdraw", withdraw, () -> transactionService.withdraw(withdraw)));
+
+        forgetCachedResults();
+        assertUnprocessable(() -> deposit(key, accountId, "11.00"));
+        assertEquals(Money.parse("60.00"), balanceOf(accountId));
+    }
+
+    @Test
+    void failedMovementLeavesTheKeyFreeForARetry() {
+        Long accountId = createAccount("5.00");
+        String key = UUID.randomUUID().toString();
+        WithdrawRequest withdraw = new WithdrawRequest();
+        withdraw.setAccountId(accountId);
+        withdraw.setAmount(Money.parse("10.00"));
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute(key, "withdraw", withdraw, () -> transactionService.withdraw(withdraw)));
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertFalse(idempotencyRecordRepository.existsById(key));
+
+        deposit(UUID.randomUUID().toString(), accountId, "5.00");
+        TransactionResponse retried =
+                idempotencyService.execute(key, "withdraw", withdraw, () -> transactionService.withdraw(withdraw));
+        assertEquals(Money.parse("10.00"), retried.getAmount());
+        assertEquals(Money.ZERO, balanceOf(accountId));
+    }
+
+    @Test
+    void concurrentDuplicatesMoveMoneyOnce() throws Exception {
+        Long accountId = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+        int duplicates = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(duplicates);
+        try {
+            List<Future<TransactionResponse>> results = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return deposit(key, accountId, "1.00");
+                }));
+            }
+            start.countDown();
+            Long id = results.get(0).get().getId();
+            for (Future<TransactionResponse> result : results) {
+                assertEquals(id, result.get().getId());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(Money.parse("1.00"), balanceOf(accountId));
+    }
+
+    /**
+     * On the account shards the movement runs on another thread, and its key
+     * must still be stored in the movement's own transaction.
+     */
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:idempotency_sharded",
+            "banking.locking.mode=SHARDED"
+    })
+    class Sharded {
+
+        @Autowired
+        private IIdempotencyService idempotencyService;
+
+        @Autowired
+        private ITransactionService transactionService;
+
+        @Autowired
+        private IdempotencyRecordRepository idempotencyRecordRepository;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Test
+        void duplicateThatCommitsFirstWinsAndTheOtherIsRolledBack() {
+            Long accountId = createAccount(userRepository, accountRepository, "0.00");
+
+            assertDuplicateIsRolledBack(idempotencyService, transactionService, idempotencyRecordRepository, accountId,
+                    id -> accountRepository.findById(id).orElseThrow().getBalance());
+        }
+    }
+
+    /**
+     * Commits the key for another node's deposit while this request's deposit
+     * is running, so storing the key fails and must take the deposit with it.
+     */
+    private static void assertDuplicateIsRolledBack(IIdempotencyService idempotencyService,
+            ITransactionService transactionService, IdempotencyRecordRepository idempotencyRecordRepository,
+            Long accountId, Function<Long, Money> balanceOf) {
+        String key = UUID.randomUUID().toString();
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(accountId);
+        request.setAmount(Money.parse("10.00"));
+        // The deposit made by the other node
+        Long winnerId = transactionService.deposit(request).getId();
+
+        TransactionResponse result = idempotencyService.execute(key, "deposit", request, () -> {
+            // Another node commits the same key while this request is running
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(key);
+            record.setOperation("deposit");
+            Object target = AopTestUtils.getUltimateTargetObject(idempotencyService);
+            record.setRequestHash(ReflectionTestUtils.invokeMethod(target, "fingerprint", "deposit", request));
+            record.setTransactionId(winnerId);
+            idempotencyRecordRepository.save(record);
+            return transactionService.deposit(request);
+        });
+
+        assertEquals(winnerId, result.getId());
+        assertEquals(Money.parse("10.00"), balanceOf.apply(accountId));
+    }
+
+    private TransactionResponse deposit(String key, Long accountId, String amount) {
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(accountId);
+        request.setAmount(Money.parse(amount));
+        return idempotencyService.execute(key, "deposit", request, () -> transactionService.deposit(request));
+    }
+
+    private void forgetCachedResults() {
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(
+                (Object) AopTestUtils.getUltimateTargetObject(idempotencyService), "cache");
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Money balanceOf(Long accountId) {
+        return accountRepository.findById(accountId).orElseThrow().getBalance();
+    }
+
+    private Long createAccount(String balance) {
+        return createAccount(userRepository, accountRepository, balance);
+    }
+
+    private static Long createAccount(UserRepository userRepository, AccountRepository accountRepository,
+            String balance) {
+        User user = new User();
+        user.setName("Idempotency");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("IDEM-" + UUID.randomUUID());
+        account.setBalance(Money.parse(balance));
+        return accountRepository.save(account).getId();
+    }
+
+    private static void assertUnprocessable(Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+}
@@ -0,0 +1,129 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.AccountSummary;
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.PortfolioSummary;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:portfolio"
+})
+class PortfolioServiceTests {
+
+    @Autowired
+    private IPortfolioService portfolioService;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void summaryIsAggregatedOnceAndThenFollowsCommittedMovements() {
+        User user = new User();
+        user.setName("Portfolio");
+        user.setEmail("portfolio-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account checking = openAccount(user, "100.00");
+        Account savings = openAccount(user, "0.00");
+
+        // Older than the window: it is the last activity on savings but not part of its inflow
+        Transaction old = new Transaction();
+        old.setType(TransactionType.DEPOSIT);
+        old.setAmount(Money.parse("7.00"));
+        old.setToAccount(savings);
+        old.setTimestamp(Instant.now().minus(Duration.ofDays(45)));
+        transactionRepository.save(old);
+
+        PortfolioSummary first = portfolioService.getPortfolio(user.getId());
+        assertEquals(Money.parse("100.00"), first.getTotalInflow());
+        assertEquals(Money.ZERO, summaryOf(first, savings).getInflow());
+        assertEquals(old.getTimestamp().toEpochMilli(),
+                summaryOf(first, savings).getLastActivityAt().toEpochMilli());
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromAccountId(checking.getId());
+        transfer.setToAccountId(savings.getId());
+        transfer.setAmount(Money.parse("40.00"));
+        transactionService.transfer(transfer);
+        DepositRequest deposit = new DepositRequest();
+        deposit.setAccountId(savings.getId());
+        deposit.setAmount(Money.parse("2.50"));
+        transactionService.deposit(deposit);
+        // Written behind the application's back, so it only shows if the activity is aggregated again
+        jdbcTemplate.update("update transactions set amount = 1000 where to_account_id = ? and type = 'DEPOSIT'",
+                checking.getId());
+
+        PortfolioSummary second = portfolioService.getPortfolio(user.getId());
+        AccountSummary checkingSummary = summaryOf(second, checking);
+        AccountSummary savingsSummary = summaryOf(second, savings);
+        assertEquals(Money.parse("100.00"), checkingSummary.getInflow());
+        assertEquals(Money.parse("40.00"), checkingSummary.getOutflow());
+        assertEquals(Money.parse("42.50"), savingsSummary.getInflow());
+        assertEquals(Money.ZERO, savingsSummary.getOutflow());
+        assertEquals(Money.parse("142.50"), second.getTotalInflow());
+        assertEquals(Money.parse("40.00"), second.getTotalOutflow());
+        assertEquals(Money.parse("102.50"), second.getTotalBalance());
+        assertTrue(savingsSummary.getLastActivityAt().isAfter(old.getTimestamp()));
+    }
+
+    @Test
+    void accountsWithoutMovementsHaveNoActivity() {
+        User user = new User();
+        user.setName("Idle");
+        user.setEmail("idle-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account idle = openAccount(user, "0.00");
+
+        AccountSummary summary = summaryOf(portfolioService.getPortfolio(user.getId()), idle);
+        assertNull(summary.getLastActivityAt());
+        assertEquals(Money.ZERO, summary.getInflow());
+        assertEquals(Money.ZERO, summary.getOutflow());
+    }
+
+    private Account openAccount(User user, String balance) {
+        CreateAccountRequest request = new CreateAccountRequest();
+        request.setUserId(user.getId());
+        request.setBalance(Money.parse(balance));
+        return accountService.createAccount(request);
+    }
+
+    private static AccountSummary summaryOf(PortfolioSummary portfolio, Account account) {
+        return portfolio.getAccounts().stream()
+                .filter(summary -> summary.getId().equals(account.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
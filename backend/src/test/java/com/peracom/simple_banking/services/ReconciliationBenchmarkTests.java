@@ -0,0 +1,95 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.ReconciliationReport;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Reconciles a million accounts, each with an opening deposit, one transfer
+ * out and one in, first flat out and then paced to half that rate. Run with
+ * {@code mvn test -Pbenchmark}; the database lives on disk.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/reconciliation;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+class ReconciliationBenchmarkTests {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final int TAMPERED = 10;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcilesMillionAccounts() {
+        User user = new User();
+        user.setName("Reconciliation");
+        user.setEmail("reconciliation@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        jdbcTemplate.update("""
+                INSERT INTO accounts (id, account_number, balance, status, user_id, version, created_at)
+                SELECT X, 'RECON-' || X, 100.00, 'ACTIVE', ?, 0, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, user.getId(), ACCOUNTS);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, type, amount, to_account_id, timestamp, description)
+                SELECT X, 'DEPOSIT', 100.00, X, TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00', 'Opening balance'
+                FROM SYSTEM_RANGE(1, ?)
+                """, ACCOUNTS);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, type, amount, from_account_id, to_account_id, timestamp, description)
+                SELECT ? + X, 'TRANSFER', 1.00, X, MOD(X, ?) + 1,
+                       TIMESTAMP WITH TIME ZONE '2024-01-02 00:00:00+00', 'Ring'
+                FROM SYSTEM_RANGE(1, ?)
+                """, ACCOUNTS, ACCOUNTS, ACCOUNTS);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 0.01 WHERE MOD(id, ?) = 0",
+                ACCOUNTS / TAMPERED);
+
+        ReconciliationReport flatOut = reconciliationService.reconcile();
+        report("Unpaced", flatOut);
+        assertEquals(ACCOUNTS, flatOut.getAccountsChecked());
+        assertEquals(TAMPERED, flatOut.getDiscrepancyCount());
+
+        long paceLimit = (long) (flatOut.getAccountsPerSecond() / 2);
+        Object unpaced = ReflectionTestUtils.getField(reconciliationService, "maxAccountsPerSecond");
+        ReflectionTestUtils.setField(reconciliationService, "maxAccountsPerSecond", paceLimit);
+        ReconciliationReport paced;
+        try {
+            paced = reconciliationService.reconcile();
+        } finally {
+            ReflectionTestUtils.setField(reconciliationService, "maxAccountsPerSecond", unpaced);
+        }
+        report("Paced to " + paceLimit + "/s", paced);
+        assertEquals(TAMPERED, paced.getDiscrepancyCount());
+        assertTrue(paced.getAccountsPerSecond() <= paceLimit * 1.1);
+    }
+
+    private static void report(String label, ReconciliationReport report) {
+        Runtime runtime = Runtime.getRuntime();
+        log.info("{}: reconciled {} accounts in {} s = {} accounts/s, {} discrepancies, {} threads, max heap {} MB",
+                label, report.getAccountsChecked(), String.format("%.2f", report.getElapsedMs() / 1e3),
+                String.format("%.0f", report.getAccountsPerSecond()), report.getDiscrepancyCount(),
+                runtime.availableProcessors(), runtime.maxMemory() >> 20);
+    }
+}
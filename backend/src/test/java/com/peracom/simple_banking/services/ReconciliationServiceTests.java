@@ -0,0 +1,95 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.peracom.simple_banking.dtos.CreateAccountRequest;
+import com.peracom.simple_banking.dtos.Discrepancy;
+import com.peracom.simple_banking.dtos.ReconciliationReport;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:reconciliation",
+        "banking.reconciliation.chunk-size=2",
+        "banking.reconciliation.threads=2",
+        "banking.reconciliation.max-accounts-per-second=1000"
+})
+class ReconciliationServiceTests {
+
+    @Autowired
+    private IReconciliationService reconciliationService;
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportsOnlyBalancesTheirTransactionsDoNotExplain() {
+        User user = new User();
+        user.setName("Reconciliation");
+        user.setEmail("reconciliation-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CreateAccountRequest request = new CreateAccountRequest();
+            request.setUserId(user.getId());
+            request.setBalance(Money.parse("100.00"));
+            accounts.add(accountService.createAccount(request));
+        }
+        for (int i = 0; i < accounts.size(); i++) {
+            TransferRequest transfer = new TransferRequest();
+            transfer.setFromAccountId(accounts.get(i).getId());
+            transfer.setToAccountId(accounts.get((i + 1) % accounts.size()).getId());
+            transfer.setAmount(Money.parse("12.34"));
+            transactionService.transfer(transfer);
+        }
+        assertEquals(0, reconciliationService.reconcile().getDiscrepancyCount());
+
+        // A balance changed behind the ledger's back, and an account opened without its opening deposit
+        Account tampered = accounts.get(2);
+        jdbcTemplate.update("update accounts set balance = balance + 0.01 where id = ?", tampered.getId());
+        Account unexplained = new Account();
+        unexplained.setUser(user);
+        unexplained.setAccountNumber("RECON-" + UUID.randomUUID());
+        unexplained.setBalance(Money.parse("5.00"));
+        accountRepository.save(unexplained);
+
+        ReconciliationReport report = reconciliationService.reconcile();
+        assertEquals(6, report.getAccountsChecked());
+        assertEquals(2, report.getDiscrepancyCount());
+        assertFalse(report.isTruncated());
+        Discrepancy first = report.getDiscrepancies().get(0);
+        assertEquals(tampered.getId(), first.getAccountId());
+        assertEquals(Money.parse("100.01"), first.getStoredBalance());
+        assertEquals(Money.parse("100.00"), first.getComputedBalance());
+        assertEquals(Money.parse("0.01"), first.getDifference());
+        Discrepancy second = report.getDiscrepancies().get(1);
+        assertEquals(unexplained.getId(), second.getAccountId());
+        assertEquals(Money.ZERO, second.getComputedBalance());
+    }
+}
@@ -0,0 +1,132 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.StatementFormat;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Exports a million-row history. Run with {@code mvn test -Pbenchmark}, which
+ * caps the heap well below what the materialized history would need; the
+ * database lives on disk so that only the export itself is measured. Rows
+ * that outlive a young collection end up in the old generation, so its peak
+ * growth during the export bounds what the export retains. That growth also
+ * counts promoted garbage, so the bound is per row and well under the few
+ * hundred bytes a materialized row costs.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/statement-export;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+class StatementExportTests {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_RETAINED_BYTES_PER_ROW = 128;
+
+    @Autowired
+    private IStatementService statementService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsMillionRowHistoryInConstantMemory() throws Exception {
+        User user = new User();
+        user.setName("Statement");
+        user.setEmail("statement@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber("STMT-1");
+        Long accountId = accountRepository.save(account).getId();
+
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, type, amount, to_account_id, timestamp, description)
+                SELECT 1000000 + X, 'DEPOSIT', 0.01, ?,
+                       DATEADD('SECOND', X, TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00'), 'Bulk'
+                FROM SYSTEM_RANGE(1, ?)
+                """, accountId, ROWS);
+
+        List<MemoryPoolMXBean> oldGeneration = oldGenerationPools();
+        System.gc();
+        long baseline = oldGeneration.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        oldGeneration.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        statementService.exportStatement(accountId, StatementFormat.CSV, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long retained = oldGeneration.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        log.info("Exported {} rows ({} MB) in {} s = {} rows/s, old generation grew by at most {} MB",
+                out.lines - 1, out.bytes >> 20, String.format("%.2f", seconds),
+                String.format("%.0f", (out.lines - 1) / seconds), retained >> 20);
+
+        assertEquals(ROWS + 1, out.lines);
+        assertEquals("10000.00", out.lastBalance());
+        assertTrue(retained < ROWS * MAX_RETAINED_BYTES_PER_ROW, "export retained " + (retained >> 20) + " MB");
+    }
+
+    private static List<MemoryPoolMXBean> oldGenerationPools() {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old Gen") || pool.getName().contains("Tenured"))
+                .toList();
+        assertTrue(!pools.isEmpty(), "no old generation memory pool to measure");
+        return pools;
+    }
+
+    /**
+     * Counts bytes and lines and remembers only the last line.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+        private ByteArrayOutputStream current = new ByteArrayOutputStream();
+        private byte[] last = new byte[0];
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+                last = current.toByteArray();
+                current.reset();
+            } else {
+                current.write(b);
+            }
+        }
+
+        private String lastBalance() {
+            String[] columns = new String(last, StandardCharsets.UTF_8).split(",");
+            return columns[6];
+        }
+    }
+}
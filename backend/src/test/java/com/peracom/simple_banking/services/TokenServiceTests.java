@@ -0,0 +1,80 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+class TokenServiceTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = newTokenService(SECRET, Duration.ofHours(1));
+    }
+
+    @Test
+    void verifiesTheTokenItIssued() {
+        String token = tokenService.issue(42L).getToken();
+
+        assertEquals(42L, tokenService.verify(token).userId());
+    }
+
+    @Test
+    void rejectsMalformedForgedAndForeignTokens() {
+        String token = tokenService.issue(42L).getToken();
+        int lastDot = token.lastIndexOf('.');
+        String tampered = token.substring(0, lastDot - 1)
+                + (token.charAt(lastDot - 1) == 'A' ? 'B' : 'A') + token.substring(lastDot);
+
+        assertUnauthorized(() -> tokenService.verify("not-a-token"));
+        assertUnauthorized(() -> tokenService.verify(tampered));
+        assertUnauthorized(() -> tokenService.verify(token.substring(0, lastDot) + ".AAAA"));
+        // Signed with another key
+        String otherKey = Base64.getEncoder().encodeToString("another key of thirty-two bytes!".getBytes());
+        assertUnauthorized(() -> tokenService.verify(
+                newTokenService(otherKey, Duration.ofHours(1)).issue(42L).getToken()));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String token = newTokenService(SECRET, Duration.ofSeconds(-1)).issue(42L).getToken();
+
+        assertUnauthorized(() -> tokenService.verify(token));
+    }
+
+    @Test
+    void revokedTokensStayRejectedWhileOthersRemainValid() {
+        String revoked = tokenService.issue(42L).getToken();
+        String other = tokenService.issue(42L).getToken();
+
+        tokenService.revoke(revoked);
+
+        assertUnauthorized(() -> tokenService.verify(revoked));
+        assertUnauthorized(() -> tokenService.revoke(revoked));
+        assertEquals(42L, tokenService.verify(other).userId());
+    }
+
+    private static TokenService newTokenService(String secret, Duration ttl) {
+        TokenService service = new TokenService(new ObjectMapper());
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "tokenTtl", ttl);
+        service.init();
+        return service;
+    }
+
+    private static void assertUnauthorized(Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+    }
+}
@@ -0,0 +1,164 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.peracom.simple_banking.dtos.TransactionPage;
+import com.peracom.simple_banking.dtos.TransactionResponse;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.TransactionType;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:transaction_page"
+})
+class TransactionPageTests {
+
+    @Autowired
+    private ITransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void pagesMergeDebitsAndCreditsNewestFirst() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("Pages");
+        user.setEmail("pages-" + suffix + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account mine = account(user, "PAGE-A-" + suffix);
+        Account other = account(user, "PAGE-B-" + suffix);
+
+        // Alternate debits and credits, a second apart, plus a deposit with no source account
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.TRANSFER);
+            transaction.setAmount(Money.parse("1.00"));
+            transaction.setFromAccount(i % 2 == 0 ? mine : other);
+            transaction.setToAccount(i % 2 == 0 ? other : mine);
+            transaction.setTimestamp(start.plusSeconds(i));
+            history.add(transaction);
+        }
+        Transaction deposit = new Transaction();
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(Money.parse("5.00"));
+        deposit.setToAccount(mine);
+        deposit.setTimestamp(start.plusSeconds(7));
+        history.add(deposit);
+        transactionRepository.saveAll(history);
+
+        List<TransactionResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionPage(mine.getId(), cursor, 3, null, null, null);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(8, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(start.plusSeconds(7 - i), seen.get(i).getTimestamp());
+        }
+        assertNull(seen.get(0).getFromAccountNumber());
+        assertEquals(mine.getAccountNumber(), seen.get(0).getToAccountNumber());
+        assertEquals(other.getAccountNumber(), seen.get(1).getToAccountNumber());
+        assertEquals(other.getAccountNumber(), seen.get(2).getFromAccountNumber());
+
+        List<TransactionResponse> deposits = transactionService
+                .getTransactionPage(mine.getId(), null, 10, null, null, TransactionType.DEPOSIT).getItems();
+        assertEquals(1, deposits.size());
+        assertEquals(Money.parse("5.00"), deposits.get(0).getAmount());
+    }
+
+    @Test
+    void pagesBreakTimestampTiesByIdWithinTheWindow() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("Ties");
+        user.setEmail("ties-" + suffix + "@example.com");
+        user.setPasswordHash("x");
+        userRepository.save(user);
+        Account mine = account(user, "TIE-A-" + suffix);
+        Account other = account(user, "TIE-B-" + suffix);
+
+        // Ten movements share each second, in and out, around a window of two seconds
+        Instant start = Instant.parse("2024-02-01T00:00:00Z");
+        List<Transaction> history = new ArrayList<>();
+        for (int second = 0; second < 4; second++) {
+            for (int i = 0; i < 10; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setType(TransactionType.TRANSFER);
+                transaction.setAmount(Money.parse("1.00"));
+                transaction.setFromAccount(i % 3 == 0 ? other : mine);
+                transaction.setToAccount(i % 3 == 0 ? mine : other);
+                transaction.setTimestamp(start.plusSeconds(second));
+                history.add(transaction);
+            }
+        }
+        transactionRepository.saveAll(history);
+        Instant from = start.plusSeconds(1);
+        Instant to = start.plusSeconds(3);
+
+        List<TransactionResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionPage(mine.getId(), cursor, 4, from, to, null);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = history.stream()
+                .filter(transaction -> !transaction.getTimestamp().isBefore(from)
+                        && transaction.getTimestamp().isBefore(to))
+                .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+        assertEquals(expected, seen.stream().map(TransactionResponse::getId).toList());
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndPageSizesOutOfRange() {
+        for (int limit : new int[] {0, -1, 501}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> transactionService.getTransactionPage(1L, null, limit, null, null, null));
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> transactionService.getTransactionPage(1L, "not-a-cursor", 10, null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+    }
+
+    private Account account(User user, String accountNumber) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber(accountNumber);
+        return accountRepository.save(account);
+    }
+}
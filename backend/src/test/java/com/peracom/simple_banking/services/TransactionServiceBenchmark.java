@@ -0,0 +1,97 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.BenchmarkContexts;
+import com.peracom.simple_banking.dtos.DepositRequest;
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.dtos.WithdrawRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.Transaction;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Money movements through {@link TransactionService} against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionServiceBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final Money AMOUNT = Money.ofMinor(1);
+
+    private ConfigurableApplicationContext context;
+    private ITransactionService transactionService;
+    private Long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("jmh_transactions");
+        transactionService = context.getBean(ITransactionService.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setPasswordHash("x");
+        user = context.getBean(UserRepository.class).save(user);
+
+        accountIds = new Long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("JMH-" + i);
+            account.setBalance(Money.parse("1000000000.00"));
+            accountIds[i] = accountRepository.save(account).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        DepositRequest request = new DepositRequest();
+        request.setAccountId(randomAccount());
+        request.setAmount(AMOUNT);
+        return transactionService.deposit(request);
+    }
+
+    @Benchmark
+    public Transaction withdraw() {
+        WithdrawRequest request = new WithdrawRequest();
+        request.setAccountId(randomAccount());
+        request.setAmount(AMOUNT);
+        return transactionService.withdraw(request);
+    }
+
+    @Benchmark
+    public Transaction transfer() {
+        int from = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(accountIds[from]);
+        request.setToAccountId(accountIds[(from + 1) % ACCOUNTS]);
+        request.setAmount(AMOUNT);
+        return transactionService.transfer(request);
+    }
+
+    private Long randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+}
@@ -0,0 +1,178 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.peracom.simple_banking.dtos.TransferRequest;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.IdempotencyRecord;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.IdempotencyRecordRepository;
+import com.peracom.simple_banking.repository.TransactionRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class TransactionServiceConcurrencyTests {
+
+    private static final int ACCOUNTS = 10;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 150;
+    private static final Money OPENING_BALANCE = Money.parse("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private Object lockMode;
+    private Object maxAttempts;
+
+    @BeforeEach
+    void rememberSettings() {
+        lockMode = ReflectionTestUtils.getField(transactionService, "lockMode");
+        maxAttempts = ReflectionTestUtils.getField(transactionService, "maxAttempts");
+    }
+
+    @AfterEach
+    void restoreSettings() {
+        // The context is shared with other test classes
+        ReflectionTestUtils.setField(transactionService, "lockMode", lockMode);
+        ReflectionTestUtils.setField(transactionService, "maxAttempts", maxAttempts);
+    }
+
+    @ParameterizedTest
+    @EnumSource(LockMode.class)
+    void concurrentTransfersConserveBalances(LockMode mode) throws Exception {
+        ReflectionTestUtils.setField(transactionService, "lockMode", mode);
+        ReflectionTestUtils.setField(transactionService, "maxAttempts", 50);
+        List<Long> accountIds = createAccounts();
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    TransferRequest request = new TransferRequest();
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    request.setFromAccountId(accountIds.get(from));
+                    request.setToAccountId(accountIds.get(to));
+                    request.setAmount(Money.ofMinor(random.nextInt(1, 5000)));
+                    try {
+                        transactionService.transfer(request);
+                        completed.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("{}: {} transfers ({} rejected) in {} s = {} ops/s", mode, completed.get(), rejected.get(),
+                String.format("%.2f", seconds), String.format("%.0f", (completed.get() + rejected.get()) / seconds));
+
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed.get() + rejected.get());
+
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        Money total = accounts.stream().map(Account::getBalance).reduce(Money.ZERO, Money::plus);
+        assertEquals(Money.ofMinor(OPENING_BALANCE.minorUnits() * ACCOUNTS), total);
+
+        Map<Long, Money> nets = new HashMap<>();
+        transactionRepository.sumCreditsByAccount()
+                .forEach(sum -> nets.merge(sum.getAccountId(), Money.of(sum.getTotal()), Money::plus));
+        transactionRepository.sumDebitsByAccount()
+                .forEach(sum -> nets.merge(sum.getAccountId(), Money.of(sum.getTotal()).negate(), Money::plus));
+        for (Account account : accounts) {
+            Money expected = OPENING_BALANCE.plus(nets.getOrDefault(account.getId(), Money.ZERO));
+            assertEquals(expected, account.getBalance(), "ledger mismatch for " + account.getId());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LockMode.class)
+    void idempotencyKeyIsStoredInTheTransfersTransaction(LockMode mode) {
+        ReflectionTestUtils.setField(transactionService, "lockMode", mode);
+        List<Long> accountIds = createAccounts();
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(accountIds.get(0));
+        request.setToAccountId(accountIds.get(1));
+        request.setAmount(Money.parse("10.00"));
+        String key = UUID.randomUUID().toString();
+
+        // Another node commits the key while this transfer runs, so storing it must roll the transfer back
+        ResponseStatusException replayed = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute(key, "transfer", request, () -> {
+                    IdempotencyRecord record = new IdempotencyRecord();
+                    record.setIdempotencyKey(key);
+                    record.setOperation("transfer");
+                    record.setRequestHash("another request");
+                    record.setTransactionId(-1L);
+                    idempotencyRecordRepository.save(record);
+                    return transactionService.transfer(request);
+                }));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, replayed.getStatusCode());
+        assertEquals(OPENING_BALANCE, accountRepository.findById(accountIds.get(0)).orElseThrow().getBalance());
+        assertEquals(OPENING_BALANCE, accountRepository.findById(accountIds.get(1)).orElseThrow().getBalance());
+    }
+
+    private List<Long> createAccounts() {
+        User user = new User();
+        user.setName("Concurrency");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber("TEST-" + UUID.randomUUID().toString().substring(0, 12));
+            account.setBalance(OPENING_BALANCE);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,149 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peracom.simple_banking.dtos.ImportFormat;
+import com.peracom.simple_banking.model.Account;
+import com.peracom.simple_banking.model.Money;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.AccountRepository;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.password.cost=4",
+        "banking.import.chunk-size=3"
+})
+class UserImportServiceTests {
+
+    @Autowired
+    private IUserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvImportReportsRejectedRowsAndSavesTheRest() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        User registered = new User();
+        registered.setName("Registered");
+        registered.setEmail(prefix + "-taken@example.com");
+        registered.setPasswordHash("x");
+        userRepository.save(registered);
+
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+        String csv = "email,name,password,password_hash,opening_balance\n"
+                + prefix + "-a@example.com,\"Doe, Jane\",secret,,100.50\n"
+                + prefix + "-b@example.com,Bob,,\"" + hash + "\",\n"
+                + prefix + "-TAKEN@example.com,Taken,secret,,\n"
+                + "\n"
+                + prefix + "-c@example.com,\"Multi\nLine\",secret,,0\n"
+                + prefix + "-A@example.com,Again,secret,,\n"
+                + prefix + "-d@example.com,Dee,secret,,12.345\n"
+                + prefix + "-e@example.com,Eve,,not-a-hash,\n"
+                + ",Nobody,secret,,\n";
+
+        List<JsonNode> report = importRows(csv, ImportFormat.CSV);
+
+        assertEquals(List.of(3L, 5L, 6L, 7L, 8L), report.subList(0, report.size() - 1).stream()
+                .map(line -> line.get("row").asLong()).sorted().toList());
+        JsonNode summary = report.get(report.size() - 1);
+        assertEquals(8, summary.get("rows").asLong());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(5, summary.get("rejected").asLong());
+        assertEquals(2, summary.get("accountsOpened").asLong());
+
+        User jane = userRepository.findByEmail(prefix + "-a@example.com").orElseThrow();
+        assertEquals("Doe, Jane", jane.getName());
+        assertTrue(new BCryptPasswordEncoder().matches("secret", jane.getPasswordHash()));
+        List<Account> accounts = accountRepository.findByUser_Id(jane.getId());
+        assertEquals(1, accounts.size());
+        assertEquals(Money.parse("100.50"), accounts.get(0).getBalance());
+        assertTrue(AccountNumberGenerator.isValid(accounts.get(0).getAccountNumber()));
+
+        User bob = userRepository.findByEmail(prefix + "-b@example.com").orElseThrow();
+        assertEquals(hash, bob.getPasswordHash());
+        assertTrue(accountRepository.findByUser_Id(bob.getId()).isEmpty());
+
+        assertEquals("Multi\nLine", userRepository.findByEmail(prefix + "-c@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    void ndjsonImportReportsMalformedLines() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        String ndjson = "{\"name\":\"Ann\",\"email\":\"" + prefix + "-ann@example.com\",\"password\":\"secret\","
+                + "\"openingBalance\":25}\n"
+                + "{\"name\":\"Broken\",\n"
+                + "{\"name\":\"Ben\",\"email\":\"" + prefix + "-ben@example.com\",\"password\":\"secret\"}\n";
+
+        List<JsonNode> report = importRows(ndjson, ImportFormat.NDJSON);
+
+        assertEquals(2, report.size());
+        assertEquals(2, report.get(0).get("row").asLong());
+        assertEquals(2, report.get(1).get("imported").asLong());
+        User ann = userRepository.findByEmail(prefix + "-ann@example.com").orElseThrow();
+        assertEquals(Money.parse("25.00"), accountRepository.findByUser_Id(ann.getId()).get(0).getBalance());
+    }
+
+    @Test
+    void ndjsonNullLineIsReportedAsMalformed() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        String ndjson = "null\n"
+                + "{\"name\":\"Nia\",\"email\":\"" + prefix + "-nia@example.com\",\"password\":\"secret\"}\n";
+
+        List<JsonNode> report = importRows(ndjson, ImportFormat.NDJSON);
+
+        assertEquals(2, report.size());
+        assertEquals(1, report.get(0).get("row").asLong());
+        assertTrue(report.get(0).get("error").asText().startsWith("Malformed row"));
+        assertEquals(1, report.get(1).get("imported").asLong());
+    }
+
+    @Test
+    void rowRefusedForAnotherReasonIsNotReportedAsATakenEmail() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        // Longer than the name column, so the chunk fails and is retried row by row
+        String csv = "name,email,password\n"
+                + "Kim," + prefix + "-kim@example.com,secret\n"
+                + "N".repeat(300) + "," + prefix + "-long@example.com,secret\n";
+
+        List<JsonNode> report = importRows(csv, ImportFormat.CSV);
+
+        assertEquals(2, report.size());
+        assertEquals(2, report.get(0).get("row").asLong());
+        assertNotEquals("Email already registered.", report.get(0).get("error").asText());
+        assertEquals(1, report.get(1).get("imported").asLong());
+        assertTrue(userRepository.findByEmail(prefix + "-kim@example.com").isPresent());
+    }
+
+    private List<JsonNode> importRows(String rows, ImportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userImportService.importUsers(
+                new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), format, out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
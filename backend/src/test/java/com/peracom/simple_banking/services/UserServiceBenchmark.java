@@ -0,0 +1,56 @@
+package com.peracom.simple_banking.services;
+
+import com.peracom.simple_banking.BenchmarkContexts;
+import com.peracom.simple_banking.dtos.LoginRequest;
+import com.peracom.simple_banking.dtos.RegisterRequest;
+import com.peracom.simple_banking.model.User;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Login, dominated by BCrypt verification on the hashing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private IUserService userService;
+    private LoginRequest login;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("jmh_users");
+        userService = context.getBean(IUserService.class);
+
+        RegisterRequest register = new RegisterRequest();
+        register.setName("Benchmark");
+        register.setEmail("benchmark@example.com");
+        register.setPassword("correct horse battery staple");
+        userService.register(register).join();
+
+        login = new LoginRequest();
+        login.setEmail(register.getEmail());
+        login.setPassword(register.getPassword());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User login() {
+        return userService.login(login).join();
+    }
+}
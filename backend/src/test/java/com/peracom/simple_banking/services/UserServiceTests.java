@@ -0,0 +1,82 @@
+package com.peracom.simple_banking.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.peracom.simple_banking.dtos.RegisterRequest;
+import com.peracom.simple_banking.model.User;
+import com.peracom.simple_banking.repository.UserRepository;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Registration hashes on the bounded hashing pool and saves off it; a full
+ * pool turns new registrations away with 429.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:user_service",
+        "banking.password.cost=12",
+        "banking.password.threads=1",
+        "banking.password.queue-capacity=1"
+})
+class UserServiceTests {
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private IPasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void registerSavesTheUserOffTheHashingPool() throws Exception {
+        RegisterRequest request = register();
+
+        CompletableFuture<User> registered = userService.register(request);
+        // Completes on the thread that saved, unless it already had
+        String savedOn = registered.thenApply(user -> Thread.currentThread().getName()).get(30, TimeUnit.SECONDS);
+        User user = registered.get();
+
+        assertFalse(savedOn.startsWith("password-hash-"), "saved on " + savedOn);
+
+        User saved = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(request.getEmail(), saved.getEmail());
+        assertTrue(passwordHashingService.matches("secret", saved.getPasswordHash()).get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void registerIsRejectedWith429WhenTheHashingQueueIsFull() throws Exception {
+        // One hash runs and one waits, so the pool has no room left
+        CompletableFuture<String> running = passwordHashingService.hash("running");
+        CompletableFuture<String> queued = passwordHashingService.hash("queued");
+        try {
+            RegisterRequest request = register();
+            ResponseStatusException rejected =
+                    assertThrows(ResponseStatusException.class, () -> userService.register(request));
+
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+            assertFalse(userRepository.findByEmail(request.getEmail()).isPresent());
+        } finally {
+            CompletableFuture.allOf(running, queued).get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static RegisterRequest register() {
+        RegisterRequest request = new RegisterRequest();
+        request.setName("Hashing");
+        request.setEmail("hashing-" + UUID.randomUUID() + "@example.com");
+        request.setPassword("secret");
+        return request;
+    }
+}
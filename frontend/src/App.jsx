@@ -5,6 +5,7 @@ import Register from './components/Register'
 import Accounts from './components/Accounts'
 import AccountDetail from './components/AccountDetail'
 import Nav from './components/Nav'
+import api from './components/api'
 
 function App() {
   const [user, setUser] = useState(null)
@@ -13,7 +14,7 @@ function App() {
 
   useEffect(() => {
     const stored = localStorage.getItem('sb_user')
-    if (stored) {
+    if (stored && localStorage.getItem('sb_token')) {
       setUser(JSON.parse(stored))
     } else {
       setView('login')
@@ -27,6 +28,7 @@ function App() {
   }
 
   function handleLogout() {
+    api.logout().catch(() => {})
     setUser(null)
     localStorage.removeItem('sb_user')
     setView('login')
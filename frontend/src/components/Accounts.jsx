@@ -17,8 +17,8 @@ export default function Accounts({ user, onOpenAccount }) {
   async function loadAccounts() {
     try {
       setIsLoading(true)
-      const data = await api.getAccountsByUser(user.id)
-      setAccounts(data)
+      const portfolio = await api.getPortfolio(user.id)
+      setAccounts(portfolio.accounts)
     } catch (err) {
       setError(err.message)
     } finally {
@@ -31,10 +31,8 @@ export default function Accounts({ user, onOpenAccount }) {
     setIsCreating(true)
     try {
       const newAccount = await api.createAccount({
-        accountNumber: accountNumber || `ACC-${Date.now()}`,
-        user: { id: user.id },
-        balance: 0,
-        status: 'ACTIVE'
+        userId: user.id,
+        balance: 0
       })
       setAccounts([...accounts, newAccount])
       setSuccess('Account created successfully!')
@@ -132,6 +130,12 @@ export default function Accounts({ user, onOpenAccount }) {
                 <div style={{ fontSize: '1.2rem', color: 'var(--accent-gold)', fontWeight: '600' }}>
                   ${parseFloat(a.balance || 0).toFixed(2)}
                 </div>
+                <div style={{ color: 'var(--text-muted)', fontSize: '0.85rem' }}>
+                  30 days: +${parseFloat(a.inflow || 0).toFixed(2)} / -${parseFloat(a.outflow || 0).toFixed(2)}
+                </div>
+                <div style={{ color: 'var(--text-muted)', fontSize: '0.85rem' }}>
+                  {a.lastActivityAt ? `Last activity ${new Date(a.lastActivityAt).toLocaleDateString()}` : 'No activity yet'}
+                </div>
                 <button type="button" style={{ marginTop: 'auto' }}>
                   View Details →
                 </button>
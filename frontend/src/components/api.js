@@ -1,8 +1,13 @@
 const API_BASE = '/api'
+const TOKEN_KEY = 'sb_token'
 
 async function request(path, options = {}) {
+  const token = localStorage.getItem(TOKEN_KEY)
   const res = await fetch(`${API_BASE}${path}`, {
-    headers: { 'Content-Type': 'application/json' },
+    headers: {
+      'Content-Type': 'application/json',
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    },
     ...options,
   })
   if (!res.ok) {
@@ -13,15 +18,28 @@ async function request(path, options = {}) {
 }
 
 export function register(payload) { return request('/users/register', { method: 'POST', body: JSON.stringify(payload) }) }
-export function login(payload) { return request('/users/login', { method: 'POST', body: JSON.stringify(payload) }) }
+export function login(payload) {
+  return request('/users/login', { method: 'POST', body: JSON.stringify(payload) }).then(session => {
+    localStorage.setItem(TOKEN_KEY, session.token)
+    return session.user
+  })
+}
+export function logout() {
+  return request('/users/logout', { method: 'POST' }).finally(() => localStorage.removeItem(TOKEN_KEY))
+}
 
 export function getAccountsByUser(userId) { return request(`/accounts/user/${userId}`) }
+export function getPortfolio(userId) { return request(`/accounts/user/${userId}/summary`) }
 export function getAccount(id) { return request(`/accounts/${id}`) }
 export function createAccount(payload) { return request('/accounts', { method: 'POST', body: JSON.stringify(payload) }) }
 
 export function deposit(payload) { return request('/transactions/deposit', { method: 'POST', body: JSON.stringify(payload) }) }
 export function withdraw(payload) { return request('/transactions/withdraw', { method: 'POST', body: JSON.stringify(payload) }) }
 export function transfer(payload) { return request('/transactions/transfer', { method: 'POST', body: JSON.stringify(payload) }) }
-export function getTransactionsForAccount(accountId) { return request(`/transactions/account/${accountId}`) }
+export function getTransactionsForAccount(accountId, { cursor, limit = 50 } = {}) {
+  const params = new URLSearchParams({ limit })
+  if (cursor) params.set('cursor', cursor)
+  return request(`/transactions/account/${accountId}?${params}`).then(page => page.items)
+}
 
-export default { register, login, getAccountsByUser, getAccount, createAccount, deposit, withdraw, transfer, getTransactionsForAccount }
+export default { register, login, logout, getAccountsByUser, getPortfolio, getAccount, createAccount, deposit, withdraw, transfer, getTransactionsForAccount }